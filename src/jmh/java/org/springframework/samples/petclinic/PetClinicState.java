@@ -0,0 +1,127 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.samples.petclinic.system.DataGenerator;
+
+/**
+ * Benchmark state running the whole application against an in-memory H2 database, with
+ * the seed data extended by a large generated set of owners, pets and visits.
+ * <p>
+ * One owner, whose id is {@link #getDeepOwnerId()}, has a long visit history.
+ */
+@State(Scope.Benchmark)
+public class PetClinicState {
+
+	private static final int BATCH_SIZE = 1000;
+
+	/**
+	 * Number of owners, generated by the {@link DataGenerator}.
+	 */
+	@Param("10000")
+	public int owners;
+
+	/**
+	 * Number of visits of each of the five pets of the owner with a long visit history.
+	 */
+	@Param("200")
+	public int deepVisits;
+
+	private ConfigurableApplicationContext context;
+
+	private int deepOwnerId;
+
+	@Setup(Level.Trial)
+	public void start() {
+		this.context = startApplication(this.owners);
+		this.deepOwnerId = generateDeepOwner(this.context.getBean(JdbcTemplate.class));
+	}
+
+	/**
+	 * Start the application on a random port with the given number of generated owners.
+	 * @param owners the number of owners
+	 * @param properties additional application properties
+	 * @return the application context
+	 */
+	public static ConfigurableApplicationContext startApplication(int owners, String... properties) {
+		return new SpringApplicationBuilder(PetClinicApplication.class).profiles(DataGenerator.PROFILE)
+			.properties("petclinic.generator.owners=" + owners, "server.port=0", "spring.docker.compose.enabled=false",
+					"logging.level.root=WARN")
+			.properties(properties)
+			.run();
+	}
+
+	@TearDown(Level.Trial)
+	public void stop() {
+		this.context.close();
+	}
+
+	public ConfigurableApplicationContext getContext() {
+		return this.context;
+	}
+
+	public <T> T getBean(Class<T> type) {
+		return this.context.getBean(type);
+	}
+
+	public int getDeepOwnerId() {
+		return this.deepOwnerId;
+	}
+
+	private int generateDeepOwner(JdbcTemplate jdbc) {
+		int ownerId = nextId(jdbc, "owners");
+		int firstPetId = nextId(jdbc, "pets");
+		jdbc.update(
+				"INSERT INTO owners (id, first_name, last_name, address, city, telephone) VALUES (?, ?, ?, ?, ?, ?)",
+				ownerId, "Deep", "Visits", "1 Long Rd.", "Madison", "6085551111");
+		List<Object[]> pets = new ArrayList<>();
+		List<Object[]> visits = new ArrayList<>();
+		for (int p = 0; p < 5; p++) {
+			pets.add(new Object[] { firstPetId + p, "Deep" + p, LocalDate.of(2010, 1, 1), 1 + p, ownerId });
+			for (int v = 0; v < this.deepVisits; v++) {
+				visits.add(new Object[] { firstPetId + p, LocalDate.of(2010, 1, 1).plusDays(v * 7L), "visit " + v });
+			}
+		}
+		insert(jdbc, "INSERT INTO pets (id, name, birth_date, type_id, owner_id) VALUES (?, ?, ?, ?, ?)", pets);
+		insert(jdbc, "INSERT INTO visits (pet_id, visit_date, description) VALUES (?, ?, ?)", visits);
+		return ownerId;
+	}
+
+	private static int nextId(JdbcTemplate jdbc, String table) {
+		Integer max = jdbc.queryForObject("SELECT MAX(id) FROM " + table, Integer.class);
+		return (max != null) ? max + 1 : 1;
+	}
+
+	private static void insert(JdbcTemplate jdbc, String sql, List<Object[]> rows) {
+		for (int i = 0; i < rows.size(); i += BATCH_SIZE) {
+			jdbc.batchUpdate(sql, rows.subList(i, Math.min(i + BATCH_SIZE, rows.size())));
+		}
+	}
+
+}
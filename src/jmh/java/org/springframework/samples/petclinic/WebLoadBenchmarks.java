@@ -0,0 +1,98 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Load test comparing the request throughput of the application on platform and on
+ * virtual threads, with many concurrent clients and a connection pool smaller than the
+ * number of clients. Virtual threads require running the benchmark on Java 21 or later,
+ * otherwise both modes use platform threads.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(256)
+@Fork(1)
+public class WebLoadBenchmarks {
+
+	@State(Scope.Benchmark)
+	public static class Server {
+
+		@Param({ "false", "true" })
+		public boolean virtualThreads;
+
+		@Param("10000")
+		public int owners;
+
+		@Param("10")
+		public int poolSize;
+
+		ConfigurableApplicationContext context;
+
+		HttpClient client;
+
+		String baseUrl;
+
+		@Setup(Level.Trial)
+		public void start() {
+			this.context = PetClinicState.startApplication(this.owners,
+					"spring.threads.virtual.enabled=" + this.virtualThreads,
+					"spring.datasource.hikari.maximum-pool-size=" + this.poolSize,
+					"spring.datasource.hikari.connection-timeout=30000");
+			this.baseUrl = "http://localhost:" + ((WebServerApplicationContext) this.context).getWebServer().getPort();
+			this.client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+		}
+
+		@TearDown(Level.Trial)
+		public void stop() {
+			this.context.close();
+		}
+
+	}
+
+	@Benchmark
+	public int showOwner(Server server) throws Exception {
+		int ownerId = 1 + ThreadLocalRandom.current().nextInt(server.owners);
+		HttpRequest request = HttpRequest.newBuilder(URI.create(server.baseUrl + "/owners/" + ownerId)).build();
+		return server.client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+	}
+
+}
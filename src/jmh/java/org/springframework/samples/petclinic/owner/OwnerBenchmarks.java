@@ -0,0 +1,125 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import java.text.ParseException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.samples.petclinic.PetClinicState;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.servlet.DispatcherServlet;
+import org.springframework.web.servlet.View;
+import org.thymeleaf.spring6.view.ThymeleafViewResolver;
+
+/**
+ * Benchmarks of the owner repository, the pet type formatter and the owner details page.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OwnerBenchmarks {
+
+	private static final Pageable FIRST_PAGE = PageRequest.of(0, 5);
+
+	@State(Scope.Benchmark)
+	public static class Owners {
+
+		OwnerRepository owners;
+
+		VisitRepository visits;
+
+		PetTypeFormatter petTypeFormatter;
+
+		int deepOwnerId;
+
+		WebApplicationContext context;
+
+		View ownerDetails;
+
+		Owner deepOwner;
+
+		Map<Integer, Slice<Visit>> deepOwnerRecentVisits;
+
+		@Setup
+		public void setup(PetClinicState clinic) throws Exception {
+			this.owners = clinic.getBean(OwnerRepository.class);
+			this.petTypeFormatter = clinic.getBean(PetTypeFormatter.class);
+			this.deepOwnerId = clinic.getDeepOwnerId();
+			this.context = (WebApplicationContext) clinic.getContext();
+			this.ownerDetails = clinic.getBean(ThymeleafViewResolver.class)
+				.resolveViewName("owners/ownerDetails", Locale.ENGLISH);
+			this.deepOwner = this.owners.findWithPetsById(this.deepOwnerId).orElseThrow();
+			this.visits = clinic.getBean(VisitRepository.class);
+			this.deepOwnerRecentVisits = OwnerController.recentVisits(this.deepOwner, this.visits);
+		}
+
+	}
+
+	@Benchmark
+	public Page<Owner> findByLastNameStartingWith(Owners state) {
+		return state.owners.findByLastNameStartingWith("Da", FIRST_PAGE);
+	}
+
+	@Benchmark
+	public Optional<Owner> findByIdWithDeepVisitHistory(Owners state) {
+		return state.owners.findById(state.deepOwnerId);
+	}
+
+	@Benchmark
+	public Map<Integer, Slice<Visit>> findByIdWithRecentVisits(Owners state) {
+		// the queries of the owner details page
+		return OwnerController.recentVisits(state.owners.findWithPetsById(state.deepOwnerId).orElseThrow(),
+				state.visits);
+	}
+
+	@Benchmark
+	public PetType parsePetType(Owners state) throws ParseException {
+		return state.petTypeFormatter.parse("hamster", Locale.ENGLISH);
+	}
+
+	@Benchmark
+	public String renderOwnerDetails(Owners state) throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest(state.context.getServletContext(), "GET",
+				"/owners/" + state.deepOwnerId);
+		request.setAttribute(DispatcherServlet.WEB_APPLICATION_CONTEXT_ATTRIBUTE, state.context);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		state.ownerDetails.render(Map.of("owner", state.deepOwner, "recentVisits", state.deepOwnerRecentVisits),
+				request, response);
+		return response.getContentAsString();
+	}
+
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.model;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.dialect.HSQLDialect;
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.query.sqm.produce.function.StandardArgumentsValidators;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Registers the <code>casefold(text)</code> query function, which makes text comparisons
+ * case insensitive while keeping them index friendly on every database:
+ * <ul>
+ * <li>the H2 and HSQLDB schemas declare the searched columns as
+ * <code>VARCHAR_IGNORECASE</code> and the default MySQL collation ignores case, so the
+ * text is left as is and the plain column indexes apply;</li>
+ * <li>other databases, like Postgres, compare case sensitively, so the text is lower
+ * cased. A functional index on <code>lower(column)</code> backs such comparisons.</li>
+ * </ul>
+ * Apply it to both sides of a comparison, e.g.
+ * <code>casefold(o.lastName) LIKE concat(casefold(:lastName), '%')</code>.
+ */
+public class CaseFoldFunctionContributor implements FunctionContributor {
+
+	/**
+	 * Name of the query function.
+	 */
+	public static final String FUNCTION_NAME = "casefold";
+
+	@Override
+	public void contributeFunctions(FunctionContributions functionContributions) {
+		String pattern = ignoresCase(functionContributions.getDialect()) ? "?1" : "lower(?1)";
+		functionContributions.getFunctionRegistry()
+			.patternDescriptorBuilder(FUNCTION_NAME, pattern)
+			.setArgumentsValidator(StandardArgumentsValidators.exactly(1))
+			.setInvariantType(functionContributions.getTypeConfiguration()
+				.getBasicTypeRegistry()
+				.resolve(StandardBasicTypes.STRING))
+			.setArgumentListSignature("(STRING text)")
+			.register();
+	}
+
+	private static boolean ignoresCase(Dialect dialect) {
+		// MariaDBDialect extends MySQLDialect
+		return dialect instanceof H2Dialect || dialect instanceof HSQLDialect || dialect instanceof MySQLDialect;
+	}
+
+}
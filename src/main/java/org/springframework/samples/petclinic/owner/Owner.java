@@ -16,9 +16,11 @@
 package org.springframework.samples.petclinic.owner;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.core.style.ToStringCreator;
+import org.springframework.data.domain.DomainEvents;
 import org.springframework.samples.petclinic.model.Person;
 import org.springframework.util.Assert;
 
@@ -27,6 +29,9 @@ import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.JoinColumn;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
+import jakarta.persistence.NamedSubgraph;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.OrderBy;
 import jakarta.persistence.Table;
@@ -45,8 +50,25 @@ import jakarta.validation.constraints.NotBlank;
  */
 @Entity
 @Table(name = "owners")
+@NamedEntityGraph(name = Owner.PETS_AND_VISITS_GRAPH,
+		attributeNodes = @NamedAttributeNode(value = "pets", subgraph = "pet"),
+		subgraphs = @NamedSubgraph(name = "pet",
+				attributeNodes = { @NamedAttributeNode("type"), @NamedAttributeNode("visits") }))
+@NamedEntityGraph(name = Owner.PETS_GRAPH, attributeNodes = @NamedAttributeNode(value = "pets", subgraph = "pet"),
+		subgraphs = @NamedSubgraph(name = "pet", attributeNodes = @NamedAttributeNode("type")))
 public class Owner extends Person {
 
+	/**
+	 * Entity graph fetching the whole owner aggregate (pets, types and visits) in a
+	 * single query.
+	 */
+	public static final String PETS_AND_VISITS_GRAPH = "Owner.petsAndVisits";
+
+	/**
+	 * Entity graph fetching the pets of an owner and their types, but not their visits.
+	 */
+	public static final String PETS_GRAPH = "Owner.pets";
+
 	@Column(name = "address")
 	@NotBlank
 	private String address;
@@ -60,7 +82,7 @@ public class Owner extends Person {
 	@Pattern(regexp = "\\d{10}", message = "{telephone.invalid}")
 	private String telephone;
 
-	@OneToMany(cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+	@OneToMany(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
 	@JoinColumn(name = "owner_id")
 	@OrderBy("name")
 	private final List<Pet> pets = new ArrayList<>();
@@ -143,6 +165,16 @@ public class Owner extends Person {
 		return null;
 	}
 
+	/**
+	 * Spring Data publishes the returned event after each save of this owner through the
+	 * {@link OwnerRepository}.
+	 * @return an {@link OwnerSavedEvent} for this owner
+	 */
+	@DomainEvents
+	Collection<OwnerSavedEvent> savedEvents() {
+		return List.of(new OwnerSavedEvent(getId()));
+	}
+
 	@Override
 	public String toString() {
 		return new ToStringCreator(this).append("id", this.getId())
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import java.util.Optional;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.Assert;
+import org.springframework.util.SerializationUtils;
+
+/**
+ * Cache of whole {@link Owner} aggregates, with their pets and visits, keyed by owner id.
+ * It is only enabled by the {@value #PROFILE} profile, which also bounds the
+ * {@value #CACHE_NAME} cache in size and time.
+ * <p>
+ * The cached owners are never handed out: each lookup returns a copy, so that binding a
+ * form onto an owner does not change the cached one. An owner is evicted once a
+ * transaction saving it through the {@link OwnerRepository} commits, see
+ * {@link OwnerSavedEvent}, while other changes to the aggregate must {@link #evict(int)
+ * evict} it themselves. Owners are loaded atomically per id and an eviction waits for the
+ * load in progress, so an owner read before a commit is not cached past it.
+ */
+@Component
+@Profile(OwnerCache.PROFILE)
+class OwnerCache {
+
+	/**
+	 * Profile enabling the cache.
+	 */
+	static final String PROFILE = "owner-cache";
+
+	/**
+	 * Name of the cache holding the owners.
+	 */
+	static final String CACHE_NAME = "owners";
+
+	private final OwnerRepository owners;
+
+	private final Cache cache;
+
+	OwnerCache(OwnerRepository owners, CacheManager cacheManager) {
+		this.owners = owners;
+		this.cache = cacheManager.getCache(CACHE_NAME);
+		Assert.notNull(this.cache, () -> "No cache named '" + CACHE_NAME + "' is available");
+	}
+
+	/**
+	 * Return a copy of the {@link Owner} with the given id, with its pets and visits,
+	 * loading it only if it is not cached yet.
+	 * @param ownerId the id of the owner
+	 * @return the owner, or an empty {@link Optional} if none exists
+	 */
+	Optional<Owner> findById(int ownerId) {
+		Owner owner = this.cache.get(ownerId, () -> this.owners.findById(ownerId).orElse(null));
+		return Optional.ofNullable(owner).map(SerializationUtils::clone);
+	}
+
+	/**
+	 * Evict the owner with the given id.
+	 * @param ownerId the id of the owner
+	 */
+	void evict(int ownerId) {
+		this.cache.evict(ownerId);
+	}
+
+	/**
+	 * Evict a saved owner once its transaction committed, so that it is not loaded again
+	 * before the change is visible.
+	 * @param event the event of the saved owner
+	 */
+	@TransactionalEventListener(fallbackExecution = true)
+	void onOwnerSaved(OwnerSavedEvent event) {
+		evict(event.getOwnerId());
+	}
+
+}
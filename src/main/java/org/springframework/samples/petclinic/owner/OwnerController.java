@@ -15,12 +15,17 @@
  */
 package org.springframework.samples.petclinic.owner;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
 
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
@@ -48,10 +53,26 @@ class OwnerController {
 
 	private static final String VIEWS_OWNER_CREATE_OR_UPDATE_FORM = "owners/createOrUpdateOwnerForm";
 
+	private static final int PAGE_SIZE = 5;
+
+	static final int RECENT_VISITS = 5;
+
+	private static final int SEARCH_RESULTS = 20;
+
 	private final OwnerRepository owners;
 
-	public OwnerController(OwnerRepository owners) {
+	private final VisitRepository visits;
+
+	private final OwnerSearchIndex searchIndex;
+
+	private final OwnerResolver ownerResolver;
+
+	public OwnerController(OwnerRepository owners, VisitRepository visits, OwnerSearchIndex searchIndex,
+			OwnerResolver ownerResolver) {
 		this.owners = owners;
+		this.visits = visits;
+		this.searchIndex = searchIndex;
+		this.ownerResolver = ownerResolver;
 	}
 
 	@InitBinder
@@ -61,10 +82,8 @@ class OwnerController {
 
 	@ModelAttribute("owner")
 	public Owner findOwner(@PathVariable(name = "ownerId", required = false) Integer ownerId) {
-		return ownerId == null ? new Owner()
-				: this.owners.findById(ownerId)
-					.orElseThrow(() -> new IllegalArgumentException("Owner not found with id: " + ownerId
-							+ ". Please ensure the ID is correct " + "and the owner exists in the database."));
+		// the visits are not needed to edit or show an owner, see showOwner
+		return ownerId == null ? new Owner() : this.ownerResolver.resolveWithPets(ownerId);
 	}
 
 	@GetMapping("/owners/new")
@@ -90,44 +109,139 @@ class OwnerController {
 	}
 
 	@GetMapping("/owners")
-	public String processFindForm(@RequestParam(defaultValue = "1") int page, Owner owner, BindingResult result,
-			Model model) {
+	public String processFindForm(@RequestParam(required = false) Integer page,
+			@RequestParam(required = false) String after, @RequestParam(required = false) String before, Owner owner,
+			BindingResult result, Model model) {
 		// allow parameterless GET request for /owners to return all records
 		if (owner.getLastName() == null) {
 			owner.setLastName(""); // empty string signifies broadest possible search
 		}
 
+		// numbered pages are only used when explicitly requested, otherwise seek through
+		// the results with next/previous cursors
+		if (page != null) {
+			return processFindFormByPage(page, owner, result, model);
+		}
+		return processFindFormByCursor(after, before, owner, result, model);
+	}
+
+	private String processFindFormByPage(int page, Owner owner, BindingResult result, Model model) {
 		// find owners by last name
-		Page<Owner> ownersResults = findPaginatedForOwnersLastName(page, owner.getLastName());
+		Slice<OwnerSummary> ownersResults = findPaginatedForOwnersLastName(page, owner.getLastName());
 		if (ownersResults.isEmpty()) {
 			// no owners found
 			result.rejectValue("lastName", "notFound", "not found");
 			return "owners/findOwners";
 		}
 
-		if (ownersResults.getTotalElements() == 1) {
+		if (page == 1 && ownersResults.getNumberOfElements() == 1 && !ownersResults.hasNext()) {
 			// 1 owner found
-			owner = ownersResults.iterator().next();
-			return "redirect:/owners/" + owner.getId();
+			OwnerSummary found = ownersResults.iterator().next();
+			return "redirect:/owners/" + found.getId();
 		}
 
 		// multiple owners found
-		return addPaginationModel(page, model, ownersResults);
+		return addPaginationModel(page, model, ownersResults, owner.getLastName());
 	}
 
-	private String addPaginationModel(int page, Model model, Page<Owner> paginated) {
-		List<Owner> listOwners = paginated.getContent();
+	private String processFindFormByCursor(String after, String before, Owner owner, BindingResult result,
+			Model model) {
+		String lastName = owner.getLastName();
+		OwnerSearchCursor cursor;
+		try {
+			cursor = (before != null) ? OwnerSearchCursor.decode(before)
+					: (after != null) ? OwnerSearchCursor.decode(after) : OwnerSearchCursor.START;
+		}
+		catch (IllegalArgumentException ex) {
+			// a tampered with or truncated link, start over from the first page
+			cursor = OwnerSearchCursor.START;
+			before = null;
+			after = null;
+		}
+		List<OwnerSummary> ownersResults;
+		boolean hasPrevious;
+		boolean hasNext;
+		if (before != null) {
+			List<OwnerSummary> window = this.owners.findSummariesByLastNameStartingWithBefore(lastName,
+					cursor.getLastName(), cursor.getId(), Limit.of(PAGE_SIZE + 1));
+			hasPrevious = window.size() > PAGE_SIZE;
+			hasNext = true;
+			ownersResults = new ArrayList<>(window.subList(0, Math.min(window.size(), PAGE_SIZE)));
+			Collections.reverse(ownersResults);
+		}
+		else {
+			List<OwnerSummary> window = this.owners.findSummariesByLastNameStartingWithAfter(lastName,
+					cursor.getLastName(), cursor.getId(), Limit.of(PAGE_SIZE + 1));
+			hasPrevious = after != null;
+			hasNext = window.size() > PAGE_SIZE;
+			ownersResults = window.subList(0, Math.min(window.size(), PAGE_SIZE));
+		}
+
+		if (ownersResults.isEmpty()) {
+			// no owners found
+			result.rejectValue("lastName", "notFound", "not found");
+			return "owners/findOwners";
+		}
+
+		if (ownersResults.size() == 1 && !hasPrevious && !hasNext) {
+			// 1 owner found
+			return "redirect:/owners/" + ownersResults.get(0).getId();
+		}
+
+		// multiple owners found
+		model.addAttribute("listOwners", ownersResults);
+		model.addAttribute("previousCursor", hasPrevious ? OwnerSearchCursor.of(ownersResults.get(0)).encode() : null);
+		model.addAttribute("nextCursor",
+				hasNext ? OwnerSearchCursor.of(ownersResults.get(ownersResults.size() - 1)).encode() : null);
+		return "owners/ownersList";
+	}
+
+	/**
+	 * Free text search of the owners by any part of their names, city, telephone or pet
+	 * names, see {@link OwnerSearchIndex}. Only the {@value #SEARCH_RESULTS} best matches
+	 * are listed.
+	 */
+	@GetMapping("/owners/search")
+	public String processSearchForm(@RequestParam(name = "q", required = false) String query, Model model) {
+		if (query == null || query.isBlank()) {
+			return "owners/findOwners";
+		}
+
+		List<OwnerSummary> ownersResults = this.searchIndex.search(query, SEARCH_RESULTS);
+		if (ownersResults.isEmpty()) {
+			// no owners found
+			model.addAttribute("query", query);
+			return "owners/findOwners";
+		}
+
+		if (ownersResults.size() == 1) {
+			// 1 owner found
+			return "redirect:/owners/" + ownersResults.get(0).getId();
+		}
+
+		// multiple owners found, best matches first
+		model.addAttribute("listOwners", ownersResults);
+		return "owners/ownersList";
+	}
+
+	private String addPaginationModel(int page, Model model, Slice<OwnerSummary> paginated, String lastName) {
+		// the total only drives the page links, so the cached (possibly slightly stale)
+		// count is good enough as long as it never hides the pages we know exist
+		long seen = (long) (page - 1) * PAGE_SIZE + paginated.getNumberOfElements();
+		long totalItems = Math.max(this.owners.countByLastNameStartingWith(lastName), seen);
+		int totalPages = (int) Math.max((totalItems + PAGE_SIZE - 1) / PAGE_SIZE,
+				paginated.hasNext() ? page + 1 : page);
+		List<OwnerSummary> listOwners = paginated.getContent();
 		model.addAttribute("currentPage", page);
-		model.addAttribute("totalPages", paginated.getTotalPages());
-		model.addAttribute("totalItems", paginated.getTotalElements());
+		model.addAttribute("totalPages", totalPages);
+		model.addAttribute("totalItems", totalItems);
 		model.addAttribute("listOwners", listOwners);
 		return "owners/ownersList";
 	}
 
-	private Page<Owner> findPaginatedForOwnersLastName(int page, String lastname) {
-		int pageSize = 5;
-		Pageable pageable = PageRequest.of(page - 1, pageSize);
-		return owners.findByLastNameStartingWith(lastname, pageable);
+	private Slice<OwnerSummary> findPaginatedForOwnersLastName(int page, String lastname) {
+		Pageable pageable = PageRequest.of(page - 1, PAGE_SIZE);
+		return owners.findSummariesByLastNameStartingWith(lastname, pageable);
 	}
 
 	@GetMapping("/owners/{ownerId}/edit")
@@ -156,18 +270,45 @@ class OwnerController {
 	}
 
 	/**
-	 * Custom handler for displaying an owner.
-	 * @param ownerId the ID of the owner to display
+	 * Custom handler for displaying an owner. Only the {@value #RECENT_VISITS} most
+	 * recent visits of each pet are shown, fetched for all the pets at once, the others
+	 * are paged through by the {@link VisitController}.
+	 * @param owner the owner to display, as loaded by {@link #findOwner(Integer)}
 	 * @return a ModelMap with the model attributes for the view
 	 */
 	@GetMapping("/owners/{ownerId}")
-	public ModelAndView showOwner(@PathVariable("ownerId") int ownerId) {
+	public ModelAndView showOwner(@ModelAttribute("owner") Owner owner) {
 		ModelAndView mav = new ModelAndView("owners/ownerDetails");
-		Optional<Owner> optionalOwner = this.owners.findById(ownerId);
-		Owner owner = optionalOwner.orElseThrow(() -> new IllegalArgumentException(
-				"Owner not found with id: " + ownerId + ". Please ensure the ID is correct "));
 		mav.addObject(owner);
+		mav.addObject("recentVisits", recentVisits(owner, this.visits));
 		return mav;
 	}
 
+	/**
+	 * Fetch the {@value #RECENT_VISITS} most recent visits of each pet of the given owner
+	 * with a single query.
+	 * @param owner the owner, with its pets
+	 * @param visits the repository of the visits
+	 * @return a slice of recent visits by pet id, telling whether there are older ones
+	 */
+	static Map<Integer, Slice<Visit>> recentVisits(Owner owner, VisitRepository visits) {
+		List<Integer> petIds = owner.getPets().stream().map(Pet::getId).toList();
+		// one more visit per pet tells whether it has older ones to page through
+		Map<Integer, List<Visit>> visitsByPet = new HashMap<>();
+		if (!petIds.isEmpty()) {
+			for (Visit visit : visits.findRecentByPetIds(petIds, RECENT_VISITS + 1)) {
+				visitsByPet.computeIfAbsent(visit.getPetId(), petId -> new ArrayList<>()).add(visit);
+			}
+		}
+		Map<Integer, Slice<Visit>> recentVisits = new HashMap<>();
+		Pageable recent = PageRequest.of(0, RECENT_VISITS);
+		for (Integer petId : petIds) {
+			List<Visit> petVisits = visitsByPet.getOrDefault(petId, List.of());
+			boolean hasNext = petVisits.size() > RECENT_VISITS;
+			recentVisits.put(petId,
+					new SliceImpl<>(hasNext ? petVisits.subList(0, RECENT_VISITS) : petVisits, recent, hasNext));
+		}
+		return recentVisits;
+	}
+
 }
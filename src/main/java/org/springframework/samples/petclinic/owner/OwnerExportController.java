@@ -0,0 +1,70 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Bulk export of all the owners, with their pets and visits, for other systems to sync
+ * from. The export is written to the response as it is read from the database, see
+ * {@link OwnerExporter}.
+ */
+@Controller
+class OwnerExportController {
+
+	static final MediaType TEXT_CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
+
+	private static final Log logger = LogFactory.getLog(OwnerExportController.class);
+
+	private final OwnerExporter exporter;
+
+	OwnerExportController(OwnerExporter exporter) {
+		this.exporter = exporter;
+	}
+
+	@GetMapping("/owners/export.ndjson")
+	public void exportNdjson(HttpServletResponse response) throws IOException {
+		prepare(response, MediaType.APPLICATION_NDJSON, "owners.ndjson");
+		int exported = this.exporter.writeNdjson(response.getOutputStream());
+		logger.info("Exported " + exported + " owners as NDJSON");
+	}
+
+	@GetMapping("/owners/export.csv")
+	public void exportCsv(HttpServletResponse response) throws IOException {
+		prepare(response, TEXT_CSV, "owners.csv");
+		int exported = this.exporter.writeCsv(response.getOutputStream());
+		logger.info("Exported " + exported + " owners as CSV");
+	}
+
+	private void prepare(HttpServletResponse response, MediaType mediaType, String filename) {
+		response.setContentType(mediaType.toString());
+		response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+		response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+				ContentDisposition.attachment().filename(filename).build().toString());
+	}
+
+}
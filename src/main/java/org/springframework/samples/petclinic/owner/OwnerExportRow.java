@@ -0,0 +1,58 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import java.time.LocalDate;
+
+/**
+ * Read-only projection of one visit of an {@link Owner}'s pet, flattened with the pet and
+ * the owner it belongs to. Owners without pets and pets without visits are exported as a
+ * single row with empty pet or visit columns.
+ * <p>
+ * Rows are ordered by owner, pet and visit so that an owner is exported by reading its
+ * consecutive rows, without holding more than one row in memory.
+ *
+ * @see OwnerRepository#streamExportRows()
+ */
+public interface OwnerExportRow {
+
+	Integer getOwnerId();
+
+	String getFirstName();
+
+	String getLastName();
+
+	String getAddress();
+
+	String getCity();
+
+	String getTelephone();
+
+	Integer getPetId();
+
+	String getPetName();
+
+	LocalDate getBirthDate();
+
+	String getPetType();
+
+	Integer getVisitId();
+
+	LocalDate getVisitDate();
+
+	String getDescription();
+
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Writes all the owners, with their pets and visits, as newline delimited JSON (one owner
+ * per line) or as CSV (one visit per line, see {@link OwnerExportRow}).
+ * <p>
+ * The owners are streamed from the database and written as they are read, so an export
+ * only ever holds one row in memory and the response is sent while the query runs.
+ */
+@Component
+class OwnerExporter {
+
+	/**
+	 * Columns of the CSV export, in order.
+	 */
+	static final List<String> CSV_COLUMNS = List.of("owner_id", "first_name", "last_name", "address", "city",
+			"telephone", "pet_id", "pet_name", "birth_date", "pet_type", "visit_id", "visit_date", "description");
+
+	private final OwnerRepository owners;
+
+	private final ObjectMapper objectMapper;
+
+	OwnerExporter(OwnerRepository owners, ObjectMapper objectMapper) {
+		this.owners = owners;
+		this.objectMapper = objectMapper;
+	}
+
+	/**
+	 * Write one JSON object per owner and line, with the owner's pets and their visits
+	 * nested in <code>pets</code> and <code>visits</code> arrays.
+	 * @param out the stream to write to, left open
+	 * @return the number of exported owners
+	 */
+	@Transactional(readOnly = true)
+	public int writeNdjson(OutputStream out) throws IOException {
+		int exported = 0;
+		try (Stream<OwnerExportRow> rows = this.owners.streamExportRows();
+				JsonGenerator json = this.objectMapper.getFactory().createGenerator(out)) {
+			json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+			json.setRootValueSeparator(null);
+			Integer ownerId = null;
+			Integer petId = null;
+			for (Iterator<OwnerExportRow> it = rows.iterator(); it.hasNext();) {
+				OwnerExportRow row = it.next();
+				if (!row.getOwnerId().equals(ownerId)) {
+					if (ownerId != null) {
+						endOwner(json, petId);
+					}
+					startOwner(json, row);
+					ownerId = row.getOwnerId();
+					petId = null;
+					exported++;
+				}
+				if (row.getPetId() != null && !row.getPetId().equals(petId)) {
+					if (petId != null) {
+						endPet(json);
+					}
+					startPet(json, row);
+					petId = row.getPetId();
+				}
+				if (row.getVisitId() != null) {
+					json.writeStartObject();
+					json.writeNumberField("id", row.getVisitId());
+					writeDateField(json, "date", row.getVisitDate());
+					json.writeStringField("description", row.getDescription());
+					json.writeEndObject();
+				}
+			}
+			if (ownerId != null) {
+				endOwner(json, petId);
+			}
+		}
+		return exported;
+	}
+
+	private void startOwner(JsonGenerator json, OwnerExportRow row) throws IOException {
+		json.writeStartObject();
+		json.writeNumberField("id", row.getOwnerId());
+		json.writeStringField("firstName", row.getFirstName());
+		json.writeStringField("lastName", row.getLastName());
+		json.writeStringField("address", row.getAddress());
+		json.writeStringField("city", row.getCity());
+		json.writeStringField("telephone", row.getTelephone());
+		json.writeArrayFieldStart("pets");
+	}
+
+	private void endOwner(JsonGenerator json, Integer petId) throws IOException {
+		if (petId != null) {
+			endPet(json);
+		}
+		json.writeEndArray();
+		json.writeEndObject();
+		json.writeRaw('\n');
+	}
+
+	private void startPet(JsonGenerator json, OwnerExportRow row) throws IOException {
+		json.writeStartObject();
+		json.writeNumberField("id", row.getPetId());
+		json.writeStringField("name", row.getPetName());
+		writeDateField(json, "birthDate", row.getBirthDate());
+		json.writeStringField("type", row.getPetType());
+		json.writeArrayFieldStart("visits");
+	}
+
+	private void endPet(JsonGenerator json) throws IOException {
+		json.writeEndArray();
+		json.writeEndObject();
+	}
+
+	private void writeDateField(JsonGenerator json, String name, LocalDate date) throws IOException {
+		json.writeStringField(name, (date != null) ? date.toString() : null);
+	}
+
+	/**
+	 * Write a header line with the {@link #CSV_COLUMNS} then one line per
+	 * {@link OwnerExportRow}, quoting values as specified by RFC 4180.
+	 * @param out the stream to write to, left open
+	 * @return the number of exported owners
+	 */
+	@Transactional(readOnly = true)
+	public int writeCsv(OutputStream out) throws IOException {
+		int exported = 0;
+		Writer csv = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+		try (Stream<OwnerExportRow> rows = this.owners.streamExportRows()) {
+			writeCsvLine(csv, CSV_COLUMNS.toArray());
+			Integer ownerId = null;
+			for (Iterator<OwnerExportRow> it = rows.iterator(); it.hasNext();) {
+				OwnerExportRow row = it.next();
+				if (!row.getOwnerId().equals(ownerId)) {
+					ownerId = row.getOwnerId();
+					exported++;
+				}
+				writeCsvLine(csv, row.getOwnerId(), row.getFirstName(), row.getLastName(), row.getAddress(),
+						row.getCity(), row.getTelephone(), row.getPetId(), row.getPetName(), row.getBirthDate(),
+						row.getPetType(), row.getVisitId(), row.getVisitDate(), row.getDescription());
+			}
+		}
+		csv.flush();
+		return exported;
+	}
+
+	private void writeCsvLine(Writer csv, Object... values) throws IOException {
+		for (int i = 0; i < values.length; i++) {
+			if (i > 0) {
+				csv.write(',');
+			}
+			String value = Objects.toString(values[i], "");
+			if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0
+					|| value.indexOf('\r') >= 0) {
+				value = '"' + value.replace("\"", "\"\"") + '"';
+			}
+			csv.write(value);
+		}
+		csv.write("\r\n");
+	}
+
+}
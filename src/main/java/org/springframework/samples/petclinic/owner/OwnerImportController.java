@@ -0,0 +1,53 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+/**
+ * Bulk import of owners, with their pets and visits, in the formats of the
+ * {@link OwnerExportController exports}. The request body is imported as it is received,
+ * see {@link OwnerImporter}, and the response lists the rejected lines.
+ */
+@Controller
+class OwnerImportController {
+
+	private final OwnerImporter importer;
+
+	OwnerImportController(OwnerImporter importer) {
+		this.importer = importer;
+	}
+
+	@PostMapping(path = "/owners/import", consumes = "text/csv", produces = MediaType.APPLICATION_JSON_VALUE)
+	@ResponseBody
+	public OwnerImportResult importCsv(InputStream body) throws IOException {
+		return this.importer.importCsv(body);
+	}
+
+	@PostMapping(path = "/owners/import", consumes = MediaType.APPLICATION_NDJSON_VALUE,
+			produces = MediaType.APPLICATION_JSON_VALUE)
+	@ResponseBody
+	public OwnerImportResult importNdjson(InputStream body) throws IOException {
+		return this.importer.importNdjson(body);
+	}
+
+}
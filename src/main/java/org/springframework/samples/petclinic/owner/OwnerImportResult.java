@@ -0,0 +1,119 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of a bulk import by the {@link OwnerImporter}: how many owners, pets and visits
+ * were imported, and why the others were not. Only the first
+ * {@value #MAX_REPORTED_ERRORS} errors are kept, so that importing a file of the wrong
+ * format does not exhaust memory.
+ */
+public class OwnerImportResult {
+
+	static final int MAX_REPORTED_ERRORS = 1000;
+
+	private int owners;
+
+	private int pets;
+
+	private int visits;
+
+	private int errorCount;
+
+	private final List<RowError> errors = new ArrayList<>();
+
+	void imported(Owner owner) {
+		this.owners++;
+		for (Pet pet : owner.getPets()) {
+			this.pets++;
+			this.visits += pet.getVisits().size();
+		}
+	}
+
+	void rejected(int line, String message) {
+		this.errorCount++;
+		if (this.errors.size() < MAX_REPORTED_ERRORS) {
+			this.errors.add(new RowError(line, message));
+		}
+	}
+
+	public int getOwners() {
+		return this.owners;
+	}
+
+	public int getPets() {
+		return this.pets;
+	}
+
+	public int getVisits() {
+		return this.visits;
+	}
+
+	/**
+	 * @return the total number of errors, which may be more than the reported ones
+	 */
+	public int getErrorCount() {
+		return this.errorCount;
+	}
+
+	public List<RowError> getErrors() {
+		return Collections.unmodifiableList(this.errors);
+	}
+
+	@Override
+	public String toString() {
+		return "Imported " + this.owners + " owners, " + this.pets + " pets and " + this.visits + " visits with "
+				+ this.errorCount + " errors";
+	}
+
+	/**
+	 * Why a line of the imported file was rejected. Owners are imported with all their
+	 * pets and visits or not at all, so an error on any of its lines rejects the owner.
+	 */
+	public static class RowError {
+
+		private final int line;
+
+		private final String message;
+
+		RowError(int line, String message) {
+			this.line = line;
+			this.message = message;
+		}
+
+		/**
+		 * @return the number of the rejected line, starting at 1
+		 */
+		public int getLine() {
+			return this.line;
+		}
+
+		public String getMessage() {
+			return this.message;
+		}
+
+		@Override
+		public String toString() {
+			return this.line + ": " + this.message;
+		}
+
+	}
+
+}
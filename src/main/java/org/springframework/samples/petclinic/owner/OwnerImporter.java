@@ -0,0 +1,455 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.MutablePropertyValues;
+import org.springframework.context.MessageSource;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.format.support.DefaultFormattingConversionService;
+import org.springframework.format.support.FormattingConversionService;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+import org.springframework.validation.BindingResult;
+import org.springframework.validation.DataBinder;
+import org.springframework.validation.FieldError;
+import org.springframework.validation.Validator;
+import org.springframework.validation.beanvalidation.SpringValidatorAdapter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Imports owners, with their pets and visits, in the formats written by the
+ * {@link OwnerExporter}: newline delimited JSON (one owner per line) or CSV (one visit
+ * per line, consecutive lines with the same <code>owner_id</code> and <code>pet_id</code>
+ * belonging to the same owner and pet). The ids of the file only group its lines, the
+ * imported records get new ids.
+ * <p>
+ * The file is read as a stream. Each owner is bound and validated with the same rules as
+ * the owner, pet and visit forms, then saved with the valid owners before it in
+ * transactions of {@value #BATCH_SIZE} owners. An owner is imported with all its pets and
+ * visits or not at all, and the lines of the rejected owners are reported in the
+ * {@link OwnerImportResult}.
+ */
+@Component
+class OwnerImporter {
+
+	static final int BATCH_SIZE = 100;
+
+	private static final Log logger = LogFactory.getLog(OwnerImporter.class);
+
+	private static final Map<String, String> OWNER_COLUMNS = Map.of("first_name", "firstName", "last_name", "lastName",
+			"address", "address", "city", "city", "telephone", "telephone");
+
+	private static final Map<String, String> PET_COLUMNS = Map.of("pet_name", "name", "birth_date", "birthDate",
+			"pet_type", "type");
+
+	private static final Map<String, String> VISIT_COLUMNS = Map.of("visit_date", "date", "description", "description");
+
+	private final OwnerRepository owners;
+
+	private final TransactionTemplate transactionTemplate;
+
+	private final FormattingConversionService conversionService = new DefaultFormattingConversionService();
+
+	private final Validator beanValidator;
+
+	private final Validator petValidator = new PetValidator();
+
+	private final MessageSource messageSource;
+
+	private final ObjectMapper objectMapper;
+
+	OwnerImporter(OwnerRepository owners, PlatformTransactionManager transactionManager,
+			PetTypeFormatter petTypeFormatter, jakarta.validation.Validator validator, MessageSource messageSource,
+			ObjectMapper objectMapper) {
+		this.owners = owners;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.conversionService.addFormatter(petTypeFormatter);
+		this.beanValidator = new SpringValidatorAdapter(validator);
+		this.messageSource = messageSource;
+		this.objectMapper = objectMapper;
+	}
+
+	/**
+	 * Import a CSV file whose header names the {@link OwnerExporter#CSV_COLUMNS columns}
+	 * of the CSV export, in any order. Unknown columns are ignored.
+	 * @param in the UTF-8 encoded file, left open
+	 * @return the outcome of the import
+	 */
+	public OwnerImportResult importCsv(InputStream in) throws IOException {
+		Batch batch = new Batch();
+		CsvReader csv = new CsvReader(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)));
+		List<String> header = csv.next();
+		if (header == null || !header.contains("owner_id")) {
+			batch.result.rejected(1, "The header line must name the columns, see " + OwnerExporter.CSV_COLUMNS);
+			return batch.result;
+		}
+		ImportedOwner owner = null;
+		String ownerKey = null;
+		Pet pet = null;
+		String petKey = null;
+		for (List<String> fields = csv.next(); fields != null; fields = csv.next()) {
+			if (fields.size() == 1 && fields.get(0).isEmpty()) {
+				continue;
+			}
+			int line = csv.getLine();
+			Map<String, String> row = new HashMap<>();
+			for (int i = 0; i < Math.min(header.size(), fields.size()); i++) {
+				row.put(header.get(i), fields.get(i));
+			}
+			String key = row.get("owner_id");
+			if (owner == null || !StringUtils.hasText(key) || !key.equals(ownerKey)) {
+				batch.add(owner);
+				owner = new ImportedOwner(line, values(row, OWNER_COLUMNS));
+				ownerKey = key;
+				pet = null;
+				petKey = null;
+			}
+			Map<String, String> petValues = values(row, PET_COLUMNS);
+			if (!petValues.isEmpty()) {
+				// pets are told apart by id, or by name when the file has no ids
+				String rowPetKey = StringUtils.hasText(row.get("pet_id")) ? row.get("pet_id") : row.get("pet_name");
+				if (!StringUtils.hasText(rowPetKey)) {
+					owner.errors.add(new OwnerImportResult.RowError(line, "A pet needs a pet_id or a pet_name"));
+					pet = null;
+					petKey = null;
+					continue;
+				}
+				if (pet == null || !rowPetKey.equals(petKey)) {
+					pet = owner.addPet(line, petValues);
+					petKey = rowPetKey;
+				}
+			}
+			Map<String, String> visitValues = values(row, VISIT_COLUMNS);
+			if (!visitValues.isEmpty()) {
+				owner.addVisit(line, pet, visitValues);
+			}
+		}
+		batch.add(owner);
+		return batch.finish();
+	}
+
+	/**
+	 * Import a newline delimited JSON file with one owner per line, as in
+	 * <code>{"firstName":"Jean",...,"pets":[{"name":"Max",...,"visits":[...]}]}</code>.
+	 * Unknown properties are ignored.
+	 * @param in the UTF-8 encoded file, left open
+	 * @return the outcome of the import
+	 */
+	public OwnerImportResult importNdjson(InputStream in) throws IOException {
+		Batch batch = new Batch();
+		BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+		int line = 0;
+		for (String text = reader.readLine(); text != null; text = reader.readLine()) {
+			line++;
+			if (text.isBlank()) {
+				continue;
+			}
+			JsonNode json;
+			try {
+				json = this.objectMapper.readTree(text);
+			}
+			catch (JsonProcessingException ex) {
+				batch.result.rejected(line, "Invalid JSON: " + ex.getOriginalMessage());
+				continue;
+			}
+			ImportedOwner owner = new ImportedOwner(line, values(json, OWNER_COLUMNS.values()));
+			for (JsonNode petJson : json.path("pets")) {
+				Pet pet = owner.addPet(line, values(petJson, PET_COLUMNS.values()));
+				for (JsonNode visitJson : petJson.path("visits")) {
+					owner.addVisit(line, pet, values(visitJson, VISIT_COLUMNS.values()));
+				}
+			}
+			batch.add(owner);
+		}
+		return batch.finish();
+	}
+
+	private static Map<String, String> values(Map<String, String> row, Map<String, String> columns) {
+		Map<String, String> values = new HashMap<>();
+		columns.forEach((column, property) -> {
+			if (StringUtils.hasText(row.get(column))) {
+				values.put(property, row.get(column));
+			}
+		});
+		return values;
+	}
+
+	private static Map<String, String> values(JsonNode json, Iterable<String> properties) {
+		Map<String, String> values = new HashMap<>();
+		for (String property : properties) {
+			JsonNode value = json.path(property);
+			if (value.isValueNode() && !value.isNull() && StringUtils.hasText(value.asText())) {
+				values.put(property, value.asText());
+			}
+		}
+		return values;
+	}
+
+	/**
+	 * Bind the given values to the target with the formatters of the web forms, and
+	 * validate it.
+	 */
+	private BindingResult bind(Object target, String objectName, Map<String, String> values, Validator validator) {
+		DataBinder binder = new DataBinder(target, objectName);
+		binder.setConversionService(this.conversionService);
+		binder.setAllowedFields(values.keySet().toArray(String[]::new));
+		binder.setValidator(validator);
+		binder.bind(new MutablePropertyValues(values));
+		binder.validate();
+		return binder.getBindingResult();
+	}
+
+	private String message(FieldError error) {
+		return error.getObjectName() + "." + error.getField() + ": "
+				+ this.messageSource.getMessage(error, LocaleContextHolder.getLocale());
+	}
+
+	/**
+	 * An owner read from the file, with the errors of its lines.
+	 */
+	private final class ImportedOwner {
+
+		private final int line;
+
+		private final Owner owner = new Owner();
+
+		private final List<OwnerImportResult.RowError> errors = new ArrayList<>();
+
+		private ImportedOwner(int line, Map<String, String> values) {
+			this.line = line;
+			reject(line, bind(this.owner, "owner", values, beanValidator));
+		}
+
+		Pet addPet(int line, Map<String, String> values) {
+			Pet pet = new Pet();
+			BindingResult result = bind(pet, "pet", values, petValidator);
+			// same rules as the pet form, see PetController
+			if (StringUtils.hasText(pet.getName()) && this.owner.getPet(pet.getName(), false) != null) {
+				result.rejectValue("name", "duplicate", "already exists");
+			}
+			if (pet.getBirthDate() != null && pet.getBirthDate().isAfter(LocalDate.now())) {
+				result.rejectValue("birthDate", "typeMismatch.birthDate");
+			}
+			if (!reject(line, result)) {
+				this.owner.addPet(pet);
+			}
+			return pet;
+		}
+
+		void addVisit(int line, Pet pet, Map<String, String> values) {
+			if (pet == null) {
+				this.errors.add(new OwnerImportResult.RowError(line, "A visit needs a pet"));
+				return;
+			}
+			Visit visit = new Visit();
+			if (!reject(line, bind(visit, "visit", values, beanValidator))) {
+				pet.addVisit(visit);
+			}
+		}
+
+		private boolean reject(int line, BindingResult result) {
+			for (FieldError error : result.getFieldErrors()) {
+				this.errors.add(new OwnerImportResult.RowError(line, message(error)));
+			}
+			return result.hasErrors();
+		}
+
+	}
+
+	/**
+	 * The valid owners waiting to be saved, and the outcome of the import so far.
+	 */
+	private final class Batch {
+
+		private final OwnerImportResult result = new OwnerImportResult();
+
+		private final List<ImportedOwner> pending = new ArrayList<>(BATCH_SIZE);
+
+		void add(ImportedOwner owner) {
+			if (owner == null) {
+				return;
+			}
+			if (!owner.errors.isEmpty()) {
+				owner.errors.forEach(error -> this.result.rejected(error.getLine(), error.getMessage()));
+				return;
+			}
+			this.pending.add(owner);
+			if (this.pending.size() == BATCH_SIZE) {
+				flush();
+			}
+		}
+
+		OwnerImportResult finish() {
+			flush();
+			logger.info(this.result);
+			return this.result;
+		}
+
+		private void flush() {
+			if (this.pending.isEmpty()) {
+				return;
+			}
+			List<Owner> batch = this.pending.stream().map(imported -> imported.owner).toList();
+			try {
+				transactionTemplate.executeWithoutResult(status -> owners.saveAll(batch));
+				batch.forEach(this.result::imported);
+			}
+			catch (RuntimeException ex) {
+				// find out which owners the database rejected by saving them one by one
+				for (ImportedOwner imported : this.pending) {
+					clearIds(imported.owner);
+					try {
+						transactionTemplate.executeWithoutResult(status -> owners.save(imported.owner));
+						this.result.imported(imported.owner);
+					}
+					catch (RuntimeException rejected) {
+						this.result.rejected(imported.line,
+								NestedExceptionUtils.getMostSpecificCause(rejected).getMessage());
+					}
+				}
+			}
+			this.pending.clear();
+		}
+
+		/**
+		 * Forget the ids assigned by a rolled back transaction.
+		 */
+		private void clearIds(Owner owner) {
+			owner.setId(null);
+			for (Pet pet : owner.getPets()) {
+				pet.setId(null);
+				pet.getVisits().forEach(visit -> visit.setId(null));
+			}
+		}
+
+	}
+
+	/**
+	 * Reads the records of an RFC 4180 CSV file one at a time. Quoted values may contain
+	 * commas, quotes (doubled) and line breaks.
+	 */
+	private static final class CsvReader {
+
+		private final Reader in;
+
+		private int nextLine = 1;
+
+		private int line;
+
+		private int pushedBack = -2;
+
+		private CsvReader(Reader in) {
+			this.in = in;
+		}
+
+		/**
+		 * @return the line the last record read starts on
+		 */
+		int getLine() {
+			return this.line;
+		}
+
+		/**
+		 * @return the values of the next record, or {@code null} at the end of the file
+		 */
+		List<String> next() throws IOException {
+			int c = read();
+			if (c == '\uFEFF' && this.nextLine == 1) {
+				// byte order mark, as written by spreadsheets
+				c = read();
+			}
+			if (c == -1) {
+				return null;
+			}
+			this.line = this.nextLine;
+			List<String> values = new ArrayList<>();
+			StringBuilder value = new StringBuilder();
+			boolean quoted = false;
+			while (true) {
+				if (quoted) {
+					if (c == -1) {
+						quoted = false;
+						continue;
+					}
+					if (c == '"') {
+						c = read();
+						if (c != '"') {
+							quoted = false;
+							continue;
+						}
+					}
+					value.append((char) c);
+				}
+				else if (c == '"' && value.isEmpty()) {
+					quoted = true;
+				}
+				else if (c == ',') {
+					values.add(value.toString());
+					value.setLength(0);
+				}
+				else if (c == '\r' || c == '\n' || c == -1) {
+					if (c == '\r') {
+						c = read();
+						if (c != '\n') {
+							this.pushedBack = c;
+						}
+					}
+					values.add(value.toString());
+					return values;
+				}
+				else {
+					value.append((char) c);
+				}
+				c = read();
+			}
+		}
+
+		private int read() throws IOException {
+			if (this.pushedBack != -2) {
+				int c = this.pushedBack;
+				this.pushedBack = -2;
+				return c;
+			}
+			int c = this.in.read();
+			if (c == '\n') {
+				this.nextLine++;
+			}
+			return c;
+		}
+
+	}
+
+}
@@ -15,14 +15,26 @@
  */
 package org.springframework.samples.petclinic.owner;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import jakarta.annotation.Nonnull;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.samples.petclinic.model.CaseFoldFunctionContributor;
 
 /**
  * Repository class for <code>Owner</code> domain objects All method names are compliant
@@ -39,23 +51,160 @@ import org.springframework.data.jpa.repository.Query;
 public interface OwnerRepository extends JpaRepository<Owner, Integer> {
 
 	/**
-	 * Retrieve all {@link PetType}s from the data store.
+	 * Name of the cache holding the number of owners per searched last name prefix.
+	 */
+	String OWNER_SEARCH_COUNTS = "ownerSearchCounts";
+
+	/**
+	 * Number of rows fetched from the database at a time by {@link #streamExportRows()}.
+	 */
+	int EXPORT_FETCH_SIZE = 500;
+
+	/**
+	 * Retrieve all {@link PetType}s from the data store. The result is kept in the
+	 * Hibernate query cache, and the types themselves in the second-level cache.
 	 * @return a Collection of {@link PetType}s.
 	 */
 	@Query("SELECT ptype FROM PetType ptype ORDER BY ptype.name")
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
 	List<PetType> findPetTypes();
 
 	/**
 	 * Retrieve {@link Owner}s from the data store by last name, returning all owners
 	 * whose last name <i>starts</i> with the given name.
+	 * <p>
+	 * Like all last name searches of this repository, the search ignores case. See
+	 * {@link CaseFoldFunctionContributor} for how it stays backed by an index.
 	 * @param lastName Value to search for
 	 * @return a Collection of matching {@link Owner}s (or an empty Collection if none
 	 * found)
 	 */
-	Page<Owner> findByLastNameStartingWith(String lastName, Pageable pageable);
+	@Query("SELECT o FROM Owner o WHERE casefold(o.lastName) LIKE concat(casefold(:lastName), '%')")
+	Page<Owner> findByLastNameStartingWith(@Param("lastName") String lastName, Pageable pageable);
+
+	/**
+	 * Retrieve {@link OwnerSummary} projections for all owners whose last name
+	 * <i>starts</i> with the given name. The pet names of each owner are aggregated by
+	 * the database, so a page of results is a single select. No count query is issued;
+	 * use {@link #countByLastNameStartingWith(String)} when the total is needed.
+	 * @param lastName Value to search for
+	 * @param pageable the page to retrieve
+	 * @return a slice of matching {@link OwnerSummary} projections, ordered by last name
+	 * and id so that consecutive pages neither repeat nor skip owners
+	 */
+	@Query(value = """
+			SELECT o.id AS id, o.firstName AS firstName, o.lastName AS lastName, o.address AS address,
+				o.city AS city, o.telephone AS telephone,
+				listagg(p.name, ', ') WITHIN GROUP (ORDER BY p.name) AS petNames
+			FROM Owner o LEFT JOIN o.pets p
+			WHERE casefold(o.lastName) LIKE concat(casefold(:lastName), '%')
+			GROUP BY o.id, o.firstName, o.lastName, o.address, o.city, o.telephone
+			ORDER BY o.lastName, o.id
+			""")
+	Slice<OwnerSummary> findSummariesByLastNameStartingWith(@Param("lastName") String lastName, Pageable pageable);
+
+	/**
+	 * Count the owners whose last name <i>starts</i> with the given name. The result is
+	 * cached and only evicted when an owner is saved, so it is meant for rendering page
+	 * links rather than for exact figures.
+	 * @param lastName Value to search for
+	 * @return the number of matching owners
+	 */
+	@Cacheable(OWNER_SEARCH_COUNTS)
+	@Query("SELECT count(o) FROM Owner o WHERE casefold(o.lastName) LIKE concat(casefold(:lastName), '%')")
+	long countByLastNameStartingWith(@Param("lastName") String lastName);
+
+	/**
+	 * Keyset (seek) variant of
+	 * {@link #findSummariesByLastNameStartingWith(String, Pageable)}: retrieve the owners
+	 * whose last name <i>starts</i> with the given name and that sort after the given
+	 * position, ordered by last name and id. Neither an offset scan nor a count query is
+	 * needed, and the position is also a plain bound on the last name, so that the scan
+	 * of the {@code owners_last_name_id} index starts at it: deep pages are as cheap as
+	 * the first.
+	 * @param lastName Value to search for
+	 * @param afterLastName last name of the last owner of the previous page
+	 * @param afterId id of the last owner of the previous page
+	 * @param limit the maximum number of owners to retrieve
+	 * @return the matching {@link OwnerSummary} projections, in ascending order
+	 */
+	@Query("""
+			SELECT o.id AS id, o.firstName AS firstName, o.lastName AS lastName, o.address AS address,
+				o.city AS city, o.telephone AS telephone,
+				listagg(p.name, ', ') WITHIN GROUP (ORDER BY p.name) AS petNames
+			FROM Owner o LEFT JOIN o.pets p
+			WHERE casefold(o.lastName) LIKE concat(casefold(:lastName), '%')
+				AND o.lastName >= :afterLastName AND (o.lastName > :afterLastName OR o.id > :afterId)
+			GROUP BY o.id, o.firstName, o.lastName, o.address, o.city, o.telephone
+			ORDER BY o.lastName, o.id
+			""")
+	List<OwnerSummary> findSummariesByLastNameStartingWithAfter(@Param("lastName") String lastName,
+			@Param("afterLastName") String afterLastName, @Param("afterId") int afterId, Limit limit);
+
+	/**
+	 * Keyset (seek) query returning the owners whose last name <i>starts</i> with the
+	 * given name and that sort before the given position. The owners are returned in
+	 * descending order, closest to the position first, and as for
+	 * {@link #findSummariesByLastNameStartingWithAfter} the index scan ends at the
+	 * position.
+	 * @param lastName Value to search for
+	 * @param beforeLastName last name of the first owner of the following page
+	 * @param beforeId id of the first owner of the following page
+	 * @param limit the maximum number of owners to retrieve
+	 * @return the matching {@link OwnerSummary} projections, in descending order
+	 */
+	@Query("""
+			SELECT o.id AS id, o.firstName AS firstName, o.lastName AS lastName, o.address AS address,
+				o.city AS city, o.telephone AS telephone,
+				listagg(p.name, ', ') WITHIN GROUP (ORDER BY p.name) AS petNames
+			FROM Owner o LEFT JOIN o.pets p
+			WHERE casefold(o.lastName) LIKE concat(casefold(:lastName), '%')
+				AND o.lastName <= :beforeLastName AND (o.lastName < :beforeLastName OR o.id < :beforeId)
+			GROUP BY o.id, o.firstName, o.lastName, o.address, o.city, o.telephone
+			ORDER BY o.lastName DESC, o.id DESC
+			""")
+	List<OwnerSummary> findSummariesByLastNameStartingWithBefore(@Param("lastName") String lastName,
+			@Param("beforeLastName") String beforeLastName, @Param("beforeId") int beforeId, Limit limit);
+
+	/**
+	 * Retrieve the {@link OwnerSummary} projections of the owners with the given ids.
+	 * @param ids the ids to search for
+	 * @return the {@link OwnerSummary} projections of the owners found, in no particular
+	 * order
+	 */
+	@Query("""
+			SELECT o.id AS id, o.firstName AS firstName, o.lastName AS lastName, o.address AS address,
+				o.city AS city, o.telephone AS telephone,
+				listagg(p.name, ', ') WITHIN GROUP (ORDER BY p.name) AS petNames
+			FROM Owner o LEFT JOIN o.pets p
+			WHERE o.id IN :ids
+			GROUP BY o.id, o.firstName, o.lastName, o.address, o.city, o.telephone
+			""")
+	List<OwnerSummary> findSummariesByIdIn(@Param("ids") Collection<Integer> ids);
 
 	/**
-	 * Retrieve an {@link Owner} from the data store by id.
+	 * Stream all the owners with their pets and visits as flat {@link OwnerExportRow}s,
+	 * ordered by owner, pet and visit. The rows are read from a database cursor
+	 * {@value #EXPORT_FETCH_SIZE} at a time and are not managed by the persistence
+	 * context, so memory stays constant however many owners there are.
+	 * <p>
+	 * Must be called within a transaction, and the stream closed once consumed.
+	 * @return the stream of rows
+	 */
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE))
+	@Query("""
+			SELECT o.id AS ownerId, o.firstName AS firstName, o.lastName AS lastName, o.address AS address,
+				o.city AS city, o.telephone AS telephone,
+				p.id AS petId, p.name AS petName, p.birthDate AS birthDate, t.name AS petType,
+				v.id AS visitId, v.date AS visitDate, v.description AS description
+			FROM Owner o LEFT JOIN o.pets p LEFT JOIN p.type t LEFT JOIN p.visits v
+			ORDER BY o.id, p.id, v.date, v.id
+			""")
+	Stream<OwnerExportRow> streamExportRows();
+
+	/**
+	 * Retrieve an {@link Owner} from the data store by id, together with its pets, their
+	 * types and visits in a single query.
 	 * <p>
 	 * This method returns an {@link Optional} containing the {@link Owner} if found. If
 	 * no {@link Owner} is found with the provided id, it will return an empty
@@ -67,8 +216,40 @@ public interface OwnerRepository extends JpaRepository<Owner, Integer> {
 	 * @throws IllegalArgumentException if the id is null (assuming null is not a valid
 	 * input for id)
 	 */
+	@EntityGraph(Owner.PETS_AND_VISITS_GRAPH)
 	Optional<Owner> findById(@Nonnull Integer id);
 
+	/**
+	 * Retrieve an {@link Owner} from the data store by id, together with its pets and
+	 * their types but without their visits, which can be paged through the
+	 * {@link VisitRepository}.
+	 * @param id the id to search for
+	 * @return an {@link Optional} containing the {@link Owner} if found, or an empty
+	 * {@link Optional} if not found.
+	 */
+	@EntityGraph(Owner.PETS_GRAPH)
+	Optional<Owner> findWithPetsById(int id);
+
+	/**
+	 * Save the given owner, evicting the cached owner search counts as the owner's last
+	 * name may have changed. An {@link OwnerSavedEvent} is published for the owner.
+	 * @param owner the owner to save
+	 * @return the saved owner
+	 */
+	@Override
+	@CacheEvict(cacheNames = OWNER_SEARCH_COUNTS, allEntries = true)
+	<S extends Owner> S save(S owner);
+
+	/**
+	 * Save the given owners, evicting the cached owner search counts. An
+	 * {@link OwnerSavedEvent} is published for each owner.
+	 * @param owners the owners to save
+	 * @return the saved owners
+	 */
+	@Override
+	@CacheEvict(cacheNames = OWNER_SEARCH_COUNTS, allEntries = true)
+	<S extends Owner> List<S> saveAll(Iterable<S> owners);
+
 	/**
 	 * Returns all the owners from data store
 	 **/
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Loads {@link Owner} aggregates at most once per web request. The model attribute
+ * methods of a controller (and the handler method itself) may all need the owner of the
+ * request; asking this resolver instead of the {@link OwnerRepository} lets them share a
+ * single query.
+ * <p>
+ * Loaded owners are kept as a request attribute, and every lookup served from there is
+ * counted by the {@value #AVOIDED_LOADS_METRIC} metric. When the {@link OwnerCache} is
+ * enabled, owners are also shared across requests through it.
+ */
+@Component
+class OwnerResolver {
+
+	static final String AVOIDED_LOADS_METRIC = "petclinic.owner.loads.avoided";
+
+	private static final String LOADED_OWNERS_ATTRIBUTE = OwnerResolver.class.getName() + ".LOADED_OWNERS";
+
+	private static final String LOADED_OWNERS_WITH_PETS_ATTRIBUTE = OwnerResolver.class.getName()
+			+ ".LOADED_OWNERS_WITH_PETS";
+
+	private final OwnerRepository owners;
+
+	private final Counter avoidedLoads;
+
+	@Nullable
+	private final OwnerCache cache;
+
+	OwnerResolver(OwnerRepository owners, MeterRegistry registry, ObjectProvider<OwnerCache> cache) {
+		this.owners = owners;
+		this.cache = cache.getIfAvailable();
+		this.avoidedLoads = Counter.builder(AVOIDED_LOADS_METRIC)
+			.description("Owner lookups served from the current request instead of the database")
+			.register(registry);
+	}
+
+	/**
+	 * Return the {@link Owner} with the given id, loading it from the database only if it
+	 * has not been loaded during the current request yet.
+	 * @param ownerId the id of the owner
+	 * @return the owner, never {@literal null}
+	 * @throws IllegalArgumentException if no owner exists with the given id
+	 */
+	Owner resolve(int ownerId) {
+		Map<Integer, Owner> loaded = loadedOwners(LOADED_OWNERS_ATTRIBUTE);
+		Owner owner = loaded.get(ownerId);
+		if (owner != null) {
+			this.avoidedLoads.increment();
+			return owner;
+		}
+		Optional<Owner> found = (this.cache != null) ? this.cache.findById(ownerId) : this.owners.findById(ownerId);
+		owner = found.orElseThrow(() -> notFound(ownerId));
+		loaded.put(ownerId, owner);
+		return owner;
+	}
+
+	/**
+	 * Return the {@link Owner} with the given id, with at least its pets, loading it from
+	 * the database only if it has not been loaded during the current request yet. Without
+	 * the {@link OwnerCache} the visits are not loaded, unless the owner was already
+	 * {@link #resolve(int) resolved} with them.
+	 * @param ownerId the id of the owner
+	 * @return the owner, never {@literal null}
+	 * @throws IllegalArgumentException if no owner exists with the given id
+	 */
+	Owner resolveWithPets(int ownerId) {
+		if (this.cache != null) {
+			return resolve(ownerId);
+		}
+		Map<Integer, Owner> loaded = loadedOwners(LOADED_OWNERS_WITH_PETS_ATTRIBUTE);
+		Owner owner = loadedOwners(LOADED_OWNERS_ATTRIBUTE).getOrDefault(ownerId, loaded.get(ownerId));
+		if (owner != null) {
+			this.avoidedLoads.increment();
+			return owner;
+		}
+		owner = this.owners.findWithPetsById(ownerId).orElseThrow(() -> notFound(ownerId));
+		loaded.put(ownerId, owner);
+		return owner;
+	}
+
+	/**
+	 * Forget the {@link Owner} with the given id after a change to its aggregate that was
+	 * not saved through the {@link OwnerRepository}, such as a visit booked through the
+	 * {@link VisitRepository}. Must be called once that change committed.
+	 * @param ownerId the id of the owner
+	 */
+	void evict(int ownerId) {
+		if (this.cache != null) {
+			this.cache.evict(ownerId);
+		}
+	}
+
+	private static IllegalArgumentException notFound(int ownerId) {
+		return new IllegalArgumentException(
+				"Owner not found with id: " + ownerId + ". Please ensure the ID is correct ");
+	}
+
+	@SuppressWarnings("unchecked")
+	private Map<Integer, Owner> loadedOwners(String attribute) {
+		RequestAttributes attributes = RequestContextHolder.currentRequestAttributes();
+		Map<Integer, Owner> loaded = (Map<Integer, Owner>) attributes.getAttribute(attribute,
+				RequestAttributes.SCOPE_REQUEST);
+		if (loaded == null) {
+			loaded = new HashMap<>();
+			attributes.setAttribute(attribute, loaded, RequestAttributes.SCOPE_REQUEST);
+		}
+		return loaded;
+	}
+
+}
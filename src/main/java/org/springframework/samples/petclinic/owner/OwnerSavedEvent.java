@@ -0,0 +1,40 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+/**
+ * Published by {@link OwnerRepository#save(Owner)} for every saved owner, whether the
+ * owner itself or one of its pets changed. Listeners use it to refresh data derived from
+ * the owner aggregate.
+ */
+public final class OwnerSavedEvent {
+
+	private final int ownerId;
+
+	OwnerSavedEvent(int ownerId) {
+		this.ownerId = ownerId;
+	}
+
+	public int getOwnerId() {
+		return this.ownerId;
+	}
+
+	@Override
+	public String toString() {
+		return "OwnerSavedEvent[ownerId=" + this.ownerId + "]";
+	}
+
+}
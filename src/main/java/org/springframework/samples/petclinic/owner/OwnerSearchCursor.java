@@ -0,0 +1,79 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position of an owner in the owner search results, which are ordered by last name and
+ * id. Used as an opaque, URL safe token for keyset (seek) pagination, so that moving to
+ * the next or previous page never requires an offset scan.
+ */
+final class OwnerSearchCursor {
+
+	/**
+	 * Position before the first owner: every last name sorts after the empty string.
+	 */
+	static final OwnerSearchCursor START = new OwnerSearchCursor("", 0);
+
+	private static final char SEPARATOR = ':';
+
+	private final String lastName;
+
+	private final int id;
+
+	OwnerSearchCursor(String lastName, int id) {
+		this.lastName = lastName;
+		this.id = id;
+	}
+
+	static OwnerSearchCursor of(OwnerSummary owner) {
+		return new OwnerSearchCursor(owner.getLastName(), owner.getId());
+	}
+
+	String getLastName() {
+		return this.lastName;
+	}
+
+	int getId() {
+		return this.id;
+	}
+
+	String encode() {
+		String value = this.id + String.valueOf(SEPARATOR) + this.lastName;
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Decode a token created by {@link #encode()}.
+	 * @param token the encoded cursor
+	 * @return the decoded cursor
+	 * @throws IllegalArgumentException if the token is not a valid cursor
+	 */
+	static OwnerSearchCursor decode(String token) {
+		try {
+			String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+			int separator = value.indexOf(SEPARATOR);
+			return new OwnerSearchCursor(value.substring(separator + 1),
+					Integer.parseInt(value.substring(0, separator)));
+		}
+		catch (RuntimeException ex) {
+			throw new IllegalArgumentException("Invalid owner search cursor: " + token, ex);
+		}
+	}
+
+}
@@ -0,0 +1,422 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause.Occur;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.FuzzyQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * In-memory full-text index of the owners, searchable by any part of their names, city,
+ * telephone number or the names of their pets.
+ * <p>
+ * The index is rebuilt from the database in the background once the application is ready,
+ * so searches only see the owners indexed so far until the rebuild completes. It is kept
+ * up to date by the {@link OwnerSavedEvent}s of the saved owners, re-indexed together
+ * once their transaction committed. Owners inserted by other means, e.g. SQL scripts,
+ * only show up after the next rebuild.
+ * <p>
+ * Each word of a search may match a word of the owner exactly, as a prefix or with a typo
+ * or two, and results are ranked accordingly. The results are rendered from the index, so
+ * a search does not hit the database.
+ */
+@Component
+class OwnerSearchIndex implements DisposableBean {
+
+	private static final Log logger = LogFactory.getLog(OwnerSearchIndex.class);
+
+	private static final int REBUILD_BATCH_SIZE = 1000;
+
+	private static final String ID = "id";
+
+	private static final String FIRST_NAME = "firstName";
+
+	private static final String LAST_NAME = "lastName";
+
+	private static final String ADDRESS = "address";
+
+	private static final String CITY = "city";
+
+	private static final String TELEPHONE = "telephone";
+
+	private static final String PET_NAMES = "petNames";
+
+	// relative weight of a match in each of the analyzed fields
+	private static final Map<String, Float> TEXT_FIELDS = Map.of(LAST_NAME, 3f, FIRST_NAME, 2f, PET_NAMES, 2f, CITY,
+			1f);
+
+	private final OwnerRepository owners;
+
+	private final Analyzer analyzer = new StandardAnalyzer();
+
+	private final IndexWriter writer;
+
+	private final SearcherManager searchers;
+
+	private final Executor taskExecutor;
+
+	// guards the writes to the index against a concurrent rebuild
+	private final Object lock = new Object();
+
+	// ids of the owners re-indexed since the running rebuild started, null if none runs
+	private Set<Integer> reindexedDuringRebuild;
+
+	OwnerSearchIndex(OwnerRepository owners,
+			@Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) Executor taskExecutor) {
+		this.owners = owners;
+		this.taskExecutor = taskExecutor;
+		try {
+			this.writer = new IndexWriter(new ByteBuffersDirectory(), new IndexWriterConfig(this.analyzer));
+			this.searchers = new SearcherManager(this.writer, null);
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException("Failed to create the owner search index", ex);
+		}
+	}
+
+	/**
+	 * Rebuild the index on the application task executor, so that it does not delay the
+	 * readiness of the application.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	void rebuildInBackground() {
+		this.taskExecutor.execute(() -> {
+			try {
+				rebuild();
+			}
+			catch (RuntimeException ex) {
+				logger.error("Failed to index the owners for search", ex);
+			}
+		});
+	}
+
+	/**
+	 * Index all the owners of the database, in batches ordered by last name and id.
+	 * Owners re-indexed by a save while the rebuild runs keep their newer document.
+	 * @return the number of indexed owners
+	 */
+	public int rebuild() {
+		long start = System.currentTimeMillis();
+		int indexed = 0;
+		synchronized (this.lock) {
+			this.reindexedDuringRebuild = new HashSet<>();
+		}
+		try {
+			OwnerSearchCursor cursor = OwnerSearchCursor.START;
+			List<OwnerSummary> batch;
+			do {
+				batch = this.owners.findSummariesByLastNameStartingWithAfter("", cursor.getLastName(), cursor.getId(),
+						Limit.of(REBUILD_BATCH_SIZE));
+				synchronized (this.lock) {
+					for (OwnerSummary owner : batch) {
+						if (!this.reindexedDuringRebuild.contains(owner.getId())) {
+							update(owner);
+						}
+					}
+				}
+				indexed += batch.size();
+				if (!batch.isEmpty()) {
+					cursor = OwnerSearchCursor.of(batch.get(batch.size() - 1));
+				}
+			}
+			while (batch.size() == REBUILD_BATCH_SIZE);
+		}
+		finally {
+			synchronized (this.lock) {
+				this.reindexedDuringRebuild = null;
+			}
+		}
+		refresh();
+		logger.info("Indexed " + indexed + " owners for search in " + (System.currentTimeMillis() - start) + " ms");
+		return indexed;
+	}
+
+	/**
+	 * Re-index a saved owner once its transaction committed, so that the indexed data is
+	 * the one other requests see. The owners saved by the same transaction are re-indexed
+	 * together, with a single query and a single refresh of the searchers.
+	 * @param event the event of the saved owner
+	 */
+	@EventListener
+	public void onOwnerSaved(OwnerSavedEvent event) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()
+				|| !TransactionSynchronizationManager.isActualTransactionActive()) {
+			reindex(Set.of(event.getOwnerId()));
+			return;
+		}
+		SavedOwners saved = (SavedOwners) TransactionSynchronizationManager.getResource(this);
+		if (saved == null) {
+			saved = new SavedOwners();
+			TransactionSynchronizationManager.bindResource(this, saved);
+			TransactionSynchronizationManager.registerSynchronization(saved);
+		}
+		saved.ids.add(event.getOwnerId());
+	}
+
+	private void reindex(Collection<Integer> ids) {
+		List<OwnerSummary> found = this.owners.findSummariesByIdIn(ids);
+		synchronized (this.lock) {
+			Set<Integer> removed = new HashSet<>(ids);
+			for (OwnerSummary owner : found) {
+				update(owner);
+				removed.remove(owner.getId());
+			}
+			for (Integer id : removed) {
+				try {
+					this.writer.deleteDocuments(new Term(ID, String.valueOf(id)));
+				}
+				catch (IOException ex) {
+					throw new UncheckedIOException("Failed to remove owner " + id + " from the index", ex);
+				}
+			}
+			if (this.reindexedDuringRebuild != null) {
+				this.reindexedDuringRebuild.addAll(ids);
+			}
+		}
+		refresh();
+	}
+
+	/**
+	 * Search the owners matching the given text, best matches first.
+	 * @param text free text, e.g. <code>"davis leo"</code> or <code>"madison"</code>
+	 * @param maxResults the maximum number of owners to return
+	 * @return the matching owners, or an empty list if none match
+	 */
+	public List<OwnerSummary> search(String text, int maxResults) {
+		Query query = parse(text);
+		if (query == null) {
+			return List.of();
+		}
+		try {
+			IndexSearcher searcher = this.searchers.acquire();
+			try {
+				StoredFields documents = searcher.storedFields();
+				List<OwnerSummary> results = new ArrayList<>();
+				for (ScoreDoc hit : searcher.search(query, maxResults).scoreDocs) {
+					results.add(new IndexedOwner(documents.document(hit.doc)));
+				}
+				return results;
+			}
+			finally {
+				this.searchers.release(searcher);
+			}
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException("Failed to search owners for: " + text, ex);
+		}
+	}
+
+	/**
+	 * Every word of the text adds a clause matching the owners that contain it exactly,
+	 * as a prefix or, for longer words, within one or two edits. Owners matching more
+	 * words, in more significant fields, rank higher.
+	 */
+	private Query parse(String text) {
+		BooleanQuery.Builder query = new BooleanQuery.Builder();
+		Set<String> words = analyze(text);
+		for (String word : words) {
+			BooleanQuery.Builder matches = new BooleanQuery.Builder();
+			for (Map.Entry<String, Float> field : TEXT_FIELDS.entrySet()) {
+				Term term = new Term(field.getKey(), word);
+				float boost = field.getValue();
+				matches.add(new BoostQuery(new TermQuery(term), 3 * boost), Occur.SHOULD);
+				matches.add(new BoostQuery(new PrefixQuery(term), 2 * boost), Occur.SHOULD);
+				if (word.length() > 3) {
+					matches.add(new BoostQuery(new FuzzyQuery(term, (word.length() > 6) ? 2 : 1), boost), Occur.SHOULD);
+				}
+			}
+			if (word.chars().allMatch(Character::isDigit)) {
+				matches.add(new BoostQuery(new PrefixQuery(new Term(TELEPHONE, word)), 6), Occur.SHOULD);
+			}
+			query.add(matches.build(), Occur.SHOULD);
+		}
+		return words.isEmpty() ? null : query.build();
+	}
+
+	private Set<String> analyze(String text) {
+		Set<String> words = new LinkedHashSet<>();
+		if (text == null) {
+			return words;
+		}
+		try (TokenStream tokens = this.analyzer.tokenStream(LAST_NAME, text)) {
+			CharTermAttribute word = tokens.addAttribute(CharTermAttribute.class);
+			tokens.reset();
+			while (tokens.incrementToken()) {
+				words.add(word.toString());
+			}
+			tokens.end();
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException("Failed to analyze: " + text, ex);
+		}
+		return words;
+	}
+
+	private void update(OwnerSummary owner) {
+		Document document = new Document();
+		document.add(new StringField(ID, String.valueOf(owner.getId()), Field.Store.YES));
+		document.add(new TextField(FIRST_NAME, owner.getFirstName(), Field.Store.YES));
+		document.add(new TextField(LAST_NAME, owner.getLastName(), Field.Store.YES));
+		document.add(new StoredField(ADDRESS, owner.getAddress()));
+		document.add(new TextField(CITY, owner.getCity(), Field.Store.YES));
+		document.add(new StringField(TELEPHONE, owner.getTelephone(), Field.Store.YES));
+		if (owner.getPetNames() != null) {
+			document.add(new TextField(PET_NAMES, owner.getPetNames(), Field.Store.YES));
+		}
+		try {
+			this.writer.updateDocument(new Term(ID, String.valueOf(owner.getId())), document);
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException("Failed to index owner " + owner.getId(), ex);
+		}
+	}
+
+	private void refresh() {
+		try {
+			this.searchers.maybeRefreshBlocking();
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException("Failed to refresh the owner search index", ex);
+		}
+	}
+
+	@Override
+	public void destroy() throws IOException {
+		this.searchers.close();
+		this.writer.close();
+	}
+
+	/**
+	 * The ids of the owners saved by a transaction, re-indexed once it committed.
+	 */
+	private final class SavedOwners implements TransactionSynchronization {
+
+		private final Set<Integer> ids = new LinkedHashSet<>();
+
+		@Override
+		public void suspend() {
+			TransactionSynchronizationManager.unbindResource(OwnerSearchIndex.this);
+		}
+
+		@Override
+		public void resume() {
+			TransactionSynchronizationManager.bindResource(OwnerSearchIndex.this, this);
+		}
+
+		@Override
+		public void afterCommit() {
+			reindex(this.ids);
+		}
+
+		@Override
+		public void afterCompletion(int status) {
+			TransactionSynchronizationManager.unbindResourceIfPossible(OwnerSearchIndex.this);
+		}
+
+	}
+
+	/**
+	 * An {@link OwnerSummary} read from the stored fields of the index.
+	 */
+	private static final class IndexedOwner implements OwnerSummary {
+
+		private final Document document;
+
+		private IndexedOwner(Document document) {
+			this.document = document;
+		}
+
+		@Override
+		public Integer getId() {
+			return Integer.valueOf(this.document.get(ID));
+		}
+
+		@Override
+		public String getFirstName() {
+			return this.document.get(FIRST_NAME);
+		}
+
+		@Override
+		public String getLastName() {
+			return this.document.get(LAST_NAME);
+		}
+
+		@Override
+		public String getAddress() {
+			return this.document.get(ADDRESS);
+		}
+
+		@Override
+		public String getCity() {
+			return this.document.get(CITY);
+		}
+
+		@Override
+		public String getTelephone() {
+			return this.document.get(TELEPHONE);
+		}
+
+		@Override
+		public String getPetNames() {
+			return this.document.get(PET_NAMES);
+		}
+
+	}
+
+}
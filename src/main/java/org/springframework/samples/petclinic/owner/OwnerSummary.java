@@ -0,0 +1,45 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+/**
+ * Read-only projection of an {@link Owner} as shown on the owner search results page. The
+ * names of the owner's pets are aggregated into a single column by the query, so no
+ * entities are hydrated to render the list.
+ *
+ * @see OwnerRepository#findSummariesByLastNameStartingWith
+ */
+public interface OwnerSummary {
+
+	Integer getId();
+
+	String getFirstName();
+
+	String getLastName();
+
+	String getAddress();
+
+	String getCity();
+
+	String getTelephone();
+
+	/**
+	 * @return the comma separated, alphabetically ordered names of the owner's pets, or
+	 * {@literal null} if the owner has no pets
+	 */
+	String getPetNames();
+
+}
@@ -17,7 +17,6 @@ package org.springframework.samples.petclinic.owner;
 
 import java.time.LocalDate;
 import java.util.Collection;
-import java.util.Optional;
 
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.ModelMap;
@@ -48,21 +47,25 @@ class PetController {
 
 	private final OwnerRepository owners;
 
-	public PetController(OwnerRepository owners) {
+	private final OwnerResolver ownerResolver;
+
+	private final PetTypeRegistry petTypes;
+
+	public PetController(OwnerRepository owners, OwnerResolver ownerResolver, PetTypeRegistry petTypes) {
 		this.owners = owners;
+		this.ownerResolver = ownerResolver;
+		this.petTypes = petTypes;
 	}
 
 	@ModelAttribute("types")
 	public Collection<PetType> populatePetTypes() {
-		return this.owners.findPetTypes();
+		return this.petTypes.findAll();
 	}
 
 	@ModelAttribute("owner")
 	public Owner findOwner(@PathVariable("ownerId") int ownerId) {
-		Optional<Owner> optionalOwner = this.owners.findById(ownerId);
-		Owner owner = optionalOwner.orElseThrow(() -> new IllegalArgumentException(
-				"Owner not found with id: " + ownerId + ". Please ensure the ID is correct "));
-		return owner;
+		// the pet forms never show the visits
+		return this.ownerResolver.resolveWithPets(ownerId);
 	}
 
 	@ModelAttribute("pet")
@@ -73,10 +76,7 @@ class PetController {
 			return new Pet();
 		}
 
-		Optional<Owner> optionalOwner = this.owners.findById(ownerId);
-		Owner owner = optionalOwner.orElseThrow(() -> new IllegalArgumentException(
-				"Owner not found with id: " + ownerId + ". Please ensure the ID is correct "));
-		return owner.getPet(petId);
+		return this.ownerResolver.resolveWithPets(ownerId).getPet(petId);
 	}
 
 	@InitBinder("owner")
@@ -129,11 +129,14 @@ class PetController {
 
 		String petName = pet.getName();
 
-		// checking if the pet name already exists for the owner
+		// checking if the pet name already exists for the owner; the pet being edited is
+		// part of the owner's pets (and already carries the new name), so skip it
 		if (StringUtils.hasText(petName)) {
-			Pet existingPet = owner.getPet(petName, false);
-			if (existingPet != null && !existingPet.getId().equals(pet.getId())) {
-				result.rejectValue("name", "duplicate", "already exists");
+			for (Pet existingPet : owner.getPets()) {
+				if (petName.equalsIgnoreCase(existingPet.getName()) && !existingPet.getId().equals(pet.getId())) {
+					result.rejectValue("name", "duplicate", "already exists");
+					break;
+				}
 			}
 		}
 
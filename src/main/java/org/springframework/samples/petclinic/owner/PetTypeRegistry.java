@@ -0,0 +1,84 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+
+/**
+ * In-memory registry of the {@link PetType} reference data, indexed by name. The types
+ * are read from the database once and kept in the {@value #CACHE_NAME} cache, so that
+ * rendering and binding pet forms does not cost a query per request. Clearing that cache
+ * (for instance through the actuator caches endpoint) makes the registry reload the types
+ * on next use.
+ */
+@Component
+public class PetTypeRegistry {
+
+	/**
+	 * Name of the cache backing the registry.
+	 */
+	public static final String CACHE_NAME = "petTypes";
+
+	private static final String ALL_KEY = "all";
+
+	private static final String BY_NAME_KEY = "byName";
+
+	private final OwnerRepository owners;
+
+	private final Cache cache;
+
+	public PetTypeRegistry(OwnerRepository owners, CacheManager cacheManager) {
+		this.owners = owners;
+		this.cache = cacheManager.getCache(CACHE_NAME);
+		Assert.notNull(this.cache, () -> "No cache named '" + CACHE_NAME + "' is available");
+	}
+
+	/**
+	 * Return all the {@link PetType}s, ordered by name.
+	 * @return an unmodifiable list of {@link PetType}s
+	 */
+	public List<PetType> findAll() {
+		return this.cache.get(ALL_KEY, () -> List.copyOf(this.owners.findPetTypes()));
+	}
+
+	/**
+	 * Return the {@link PetType} with the given name.
+	 * @param name the exact name of the type
+	 * @return the matching {@link PetType} or {@literal null} if none exists
+	 */
+	public PetType findByName(String name) {
+		return byName().get(name);
+	}
+
+	private Map<String, PetType> byName() {
+		return this.cache.get(BY_NAME_KEY, () -> {
+			Map<String, PetType> types = new LinkedHashMap<>();
+			for (PetType type : findAll()) {
+				types.putIfAbsent(type.getName(), type);
+			}
+			return Collections.unmodifiableMap(types);
+		});
+	}
+
+}
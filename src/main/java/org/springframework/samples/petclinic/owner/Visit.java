@@ -42,6 +42,14 @@ public class Visit extends BaseEntity {
 	@NotBlank
 	private String description;
 
+	/**
+	 * The pet of a visit booked through {@link VisitRepository#save(Visit)}. Visits added
+	 * to a {@link Pet} are linked through {@link Pet#getVisits()} instead, and leave this
+	 * empty until they are loaded again.
+	 */
+	@Column(name = "pet_id", updatable = false)
+	private Integer petId;
+
 	/**
 	 * Creates a new instance of Visit for the current date
 	 */
@@ -65,4 +73,12 @@ public class Visit extends BaseEntity {
 		this.description = description;
 	}
 
+	public Integer getPetId() {
+		return this.petId;
+	}
+
+	public void setPetId(Integer petId) {
+		this.petId = petId;
+	}
+
 }
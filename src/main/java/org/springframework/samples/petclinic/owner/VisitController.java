@@ -16,16 +16,18 @@
 package org.springframework.samples.petclinic.owner;
 
 import java.util.Map;
-import java.util.Optional;
 
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.WebDataBinder;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.InitBinder;
-import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 
 import jakarta.validation.Valid;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
@@ -41,60 +43,87 @@ import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 @Controller
 class VisitController {
 
-	private final OwnerRepository owners;
+	private static final int PAGE_SIZE = 10;
 
-	public VisitController(OwnerRepository owners) {
-		this.owners = owners;
+	private final VisitRepository visits;
+
+	private final OwnerResolver ownerResolver;
+
+	public VisitController(VisitRepository visits, OwnerResolver ownerResolver) {
+		this.visits = visits;
+		this.ownerResolver = ownerResolver;
 	}
 
 	@InitBinder
 	public void setAllowedFields(WebDataBinder dataBinder) {
-		dataBinder.setDisallowedFields("id");
+		dataBinder.setDisallowedFields("id", "petId");
 	}
 
-	/**
-	 * Called before each and every @RequestMapping annotated method. 2 goals: - Make sure
-	 * we always have fresh data - Since we do not use the session scope, make sure that
-	 * Pet object always has an id (Even though id is not part of the form fields)
-	 * @param petId
-	 * @return Pet
-	 */
-	@ModelAttribute("visit")
-	public Visit loadPetWithVisit(@PathVariable("ownerId") int ownerId, @PathVariable("petId") int petId,
+	@GetMapping("/owners/{ownerId}/pets/{petId}/visits/new")
+	public String initNewVisitForm(@PathVariable("ownerId") int ownerId, @PathVariable("petId") int petId,
 			Map<String, Object> model) {
-		Optional<Owner> optionalOwner = owners.findById(ownerId);
-		Owner owner = optionalOwner.orElseThrow(() -> new IllegalArgumentException(
-				"Owner not found with id: " + ownerId + ". Please ensure the ID is correct "));
-
-		Pet pet = owner.getPet(petId);
-		model.put("pet", pet);
-		model.put("owner", owner);
-
 		Visit visit = new Visit();
-		pet.addVisit(visit);
-		return visit;
-	}
-
-	// Spring MVC calls method loadPetWithVisit(...) before initNewVisitForm is
-	// called
-	@GetMapping("/owners/{ownerId}/pets/{petId}/visits/new")
-	public String initNewVisitForm() {
+		model.put("visit", visit);
+		addOwnerAndPet(ownerId, petId, visit, model);
 		return "pets/createOrUpdateVisitForm";
 	}
 
-	// Spring MVC calls method loadPetWithVisit(...) before processNewVisitForm is
-	// called
+	/**
+	 * Book a visit. Only the ownership of the pet is checked, the owner with its pets and
+	 * visits is only loaded to show the form again when the visit is invalid.
+	 */
 	@PostMapping("/owners/{ownerId}/pets/{petId}/visits/new")
-	public String processNewVisitForm(@ModelAttribute Owner owner, @PathVariable int petId, @Valid Visit visit,
-			BindingResult result, RedirectAttributes redirectAttributes) {
+	public String processNewVisitForm(@PathVariable("ownerId") int ownerId, @PathVariable("petId") int petId,
+			@Valid Visit visit, BindingResult result, Map<String, Object> model,
+			RedirectAttributes redirectAttributes) {
 		if (result.hasErrors()) {
+			addOwnerAndPet(ownerId, petId, visit, model);
 			return "pets/createOrUpdateVisitForm";
 		}
 
-		owner.addVisit(petId, visit);
-		this.owners.save(owner);
+		if (!this.visits.existsPetOfOwner(ownerId, petId)) {
+			throw new IllegalArgumentException("Pet not found with id: " + petId + " for owner with id: " + ownerId
+					+ ". Please ensure the ID is correct ");
+		}
+		visit.setPetId(petId);
+		this.visits.save(visit);
+		this.ownerResolver.evict(ownerId);
 		redirectAttributes.addFlashAttribute("message", "Your visit has been booked");
 		return "redirect:/owners/{ownerId}";
 	}
 
+	/**
+	 * Page through the visit history of a pet, most recent first. Only the visits of the
+	 * page are loaded, unless the whole owner is cached anyway.
+	 */
+	@GetMapping("/owners/{ownerId}/pets/{petId}/visits")
+	public String showVisitList(@PathVariable("ownerId") int ownerId, @PathVariable("petId") int petId,
+			@RequestParam(defaultValue = "1") int page, Model model) {
+		Owner owner = this.ownerResolver.resolveWithPets(ownerId);
+		Pet pet = owner.getPet(petId);
+		if (pet == null) {
+			throw new IllegalArgumentException("Pet not found with id: " + petId + " for owner with id: " + ownerId
+					+ ". Please ensure the ID is correct ");
+		}
+		Slice<Visit> visits = this.visits.findByPetIdOrderByDateDescIdDesc(petId,
+				PageRequest.of(Math.max(page, 1) - 1, PAGE_SIZE));
+		model.addAttribute("owner", owner);
+		model.addAttribute("pet", pet);
+		model.addAttribute("visits", visits);
+		model.addAttribute("currentPage", visits.getNumber() + 1);
+		return "pets/visitList";
+	}
+
+	private void addOwnerAndPet(int ownerId, int petId, Visit visit, Map<String, Object> model) {
+		Owner owner = this.ownerResolver.resolve(ownerId);
+		Pet pet = owner.getPet(petId);
+		if (pet == null) {
+			throw new IllegalArgumentException("Pet not found with id: " + petId + " for owner with id: " + ownerId
+					+ ". Please ensure the ID is correct ");
+		}
+		pet.addVisit(visit);
+		model.put("pet", pet);
+		model.put("owner", owner);
+	}
+
 }
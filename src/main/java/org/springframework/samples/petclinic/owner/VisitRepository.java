@@ -0,0 +1,78 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+/**
+ * Repository class for <code>Visit</code> domain objects. Visits are part of the
+ * {@link Owner} aggregate, but booking one through this repository inserts a single row
+ * instead of loading and merging the owner with all its pets and visits.
+ */
+public interface VisitRepository extends Repository<Visit, Integer> {
+
+	/**
+	 * Check whether the given owner has a pet with the given id, without loading either.
+	 * @param ownerId the id of the owner
+	 * @param petId the id of the pet
+	 * @return {@literal true} if the pet belongs to the owner
+	 */
+	@Query("SELECT COUNT(pet) > 0 FROM Owner owner JOIN owner.pets pet WHERE owner.id = :ownerId AND pet.id = :petId")
+	boolean existsPetOfOwner(@Param("ownerId") int ownerId, @Param("petId") int petId);
+
+	/**
+	 * Retrieve a page of the visits of the given pet, most recent first. The visits are
+	 * looked up by the index on <code>pet_id</code>.
+	 * @param petId the id of the pet
+	 * @param pageable the page to retrieve
+	 * @return a slice of the visits of the pet
+	 */
+	Slice<Visit> findByPetIdOrderByDateDescIdDesc(int petId, Pageable pageable);
+
+	/**
+	 * Retrieve the most recent visits of each of the given pets in a single query, the
+	 * visits of each pet being ranked by a window function. Asking for one more visit per
+	 * pet than shown tells whether a pet has older visits.
+	 * @param petIds the ids of the pets, must not be empty
+	 * @param limit the maximum number of visits per pet
+	 * @return the visits, ordered by pet then most recent first
+	 */
+	@Query("""
+			SELECT v FROM Visit v WHERE v.id IN (
+				SELECT ranked.id FROM (
+					SELECT w.id AS id,
+						row_number() OVER (PARTITION BY w.petId ORDER BY w.date DESC, w.id DESC) AS position
+					FROM Visit w WHERE w.petId IN :petIds) ranked
+				WHERE ranked.position <= :limit)
+			ORDER BY v.petId, v.date DESC, v.id DESC
+			""")
+	List<Visit> findRecentByPetIds(@Param("petIds") Collection<Integer> petIds, @Param("limit") int limit);
+
+	/**
+	 * Insert a new visit for the pet given by {@link Visit#getPetId()}.
+	 * @param visit the visit to save
+	 * @return the saved visit
+	 */
+	Visit save(Visit visit);
+
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.system;
+
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.samples.petclinic.system.CacheInvalidationBus.CacheInvalidationListener;
+
+import com.github.benmanes.caffeine.cache.Cache;
+
+/**
+ * {@link CaffeineCacheManager} keeping the caches of several instances of the application
+ * consistent through a {@link CacheInvalidationBus}. The evictions made on its caches are
+ * applied locally and published, while the ones received from the other instances are
+ * only applied locally. Puts are never published: each instance loads its own entries.
+ */
+class BroadcastingCacheManager extends CaffeineCacheManager {
+
+	private final CacheInvalidationBus bus;
+
+	BroadcastingCacheManager(CacheInvalidationBus bus) {
+		this.bus = bus;
+		bus.subscribe(new CacheInvalidationListener() {
+
+			@Override
+			public void accept(CacheInvalidation invalidation) {
+				if (getCache(invalidation.getCacheName()) instanceof BroadcastingCache cache) {
+					cache.apply(invalidation);
+				}
+			}
+
+			@Override
+			public void missed() {
+				for (String name : getCacheNames()) {
+					if (getCache(name) instanceof BroadcastingCache cache) {
+						cache.apply(CacheInvalidation.clear(name));
+					}
+				}
+			}
+
+		});
+	}
+
+	@Override
+	protected org.springframework.cache.Cache adaptCaffeineCache(String name, Cache<Object, Object> cache) {
+		return new BroadcastingCache(name, cache, isAllowNullValues());
+	}
+
+	private final class BroadcastingCache extends CaffeineCache {
+
+		BroadcastingCache(String name, Cache<Object, Object> cache, boolean allowNullValues) {
+			super(name, cache, allowNullValues);
+		}
+
+		@Override
+		public void evict(Object key) {
+			super.evict(key);
+			BroadcastingCacheManager.this.bus.publish(CacheInvalidation.evict(getName(), key));
+		}
+
+		@Override
+		public boolean evictIfPresent(Object key) {
+			// the entry may be cached by other instances even if it is not cached here
+			boolean evicted = super.evictIfPresent(key);
+			BroadcastingCacheManager.this.bus.publish(CacheInvalidation.evict(getName(), key));
+			return evicted;
+		}
+
+		@Override
+		public void clear() {
+			super.clear();
+			BroadcastingCacheManager.this.bus.publish(CacheInvalidation.clear(getName()));
+		}
+
+		@Override
+		public boolean invalidate() {
+			boolean invalidated = super.invalidate();
+			BroadcastingCacheManager.this.bus.publish(CacheInvalidation.clear(getName()));
+			return invalidated;
+		}
+
+		void apply(CacheInvalidation invalidation) {
+			if (invalidation.getKey() != null) {
+				super.evict(invalidation.getKey());
+			}
+			else {
+				super.clear();
+			}
+		}
+
+	}
+
+}
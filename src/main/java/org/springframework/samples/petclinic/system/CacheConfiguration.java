@@ -16,38 +16,95 @@
 
 package org.springframework.samples.petclinic.system;
 
-import org.springframework.boot.autoconfigure.cache.JCacheManagerCustomizer;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.JdbcConnectionDetails;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.lang.Nullable;
 
-import javax.cache.configuration.MutableConfiguration;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.CaffeineSpec;
 
 /**
- * Cache configuration intended for caches providing the JCache API. This configuration
- * creates the used cache for the application and enables statistics that become
- * accessible via JMX.
+ * Cache configuration backed by Caffeine. Each cache gets its own bounded specification
+ * from {@link CacheSpecProperties}, and statistics are recorded so that hits, misses and
+ * evictions are published through the actuator metrics endpoint.
+ * <p>
+ * The Hibernate second-level cache of the reference entities is also held by Caffeine,
+ * through its JCache provider, with the regions configured in the file given by
+ * {@code spring.jpa.properties.hibernate.javax.cache.uri}, see
+ * {@link SecondLevelCacheRegionFactory}.
  */
 @Configuration(proxyBeanMethods = false)
 @EnableCaching
+@EnableConfigurationProperties(CacheSpecProperties.class)
 class CacheConfiguration {
 
+	/**
+	 * Create the cache manager. Refreshes and maintenance run on the application task
+	 * executor when there is one, so that loaders blocking on JDBC use virtual threads
+	 * when those are enabled. With a {@link CacheInvalidationBus}, evictions are
+	 * broadcast to the other instances of the application.
+	 */
+	@Bean
+	public CaffeineCacheManager cacheManager(CacheSpecProperties properties, ObjectProvider<NamedCacheLoader> loaders,
+			@Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) ObjectProvider<Executor> taskExecutor,
+			ObjectProvider<CacheInvalidationBus> invalidationBus) {
+		Map<String, NamedCacheLoader> loadersByCache = loaders.orderedStream()
+			.collect(Collectors.toMap(NamedCacheLoader::getCacheName, Function.identity()));
+		Executor executor = taskExecutor.getIfAvailable();
+		CacheInvalidationBus bus = invalidationBus.getIfAvailable();
+		CaffeineCacheManager cacheManager = (bus != null) ? new BroadcastingCacheManager(bus)
+				: new CaffeineCacheManager();
+		cacheManager.setCaffeine(caffeine(properties.getDefaultSpec(), executor));
+		properties.getSpecs().forEach((name, spec) -> {
+			NamedCacheLoader loader = loadersByCache.get(name);
+			cacheManager.registerCustomCache(name,
+					(loader != null) ? caffeine(spec, executor).build(loader) : caffeine(spec, executor).build());
+		});
+		return cacheManager;
+	}
+
+	/**
+	 * Broadcast the cache evictions through the database when
+	 * {@code petclinic.cache.invalidation.type=postgres}, so that several instances can
+	 * share a PostgreSQL database without serving each other stale entries.
+	 * <p>
+	 * The bus connects to the database of the application data source, but outside of its
+	 * connection pool, so it holds two more connections per instance.
+	 */
 	@Bean
-	public JCacheManagerCustomizer petclinicCacheConfigurationCustomizer() {
-		return cm -> cm.createCache("vets", cacheConfiguration());
+	@ConditionalOnProperty(name = "petclinic.cache.invalidation.type", havingValue = "postgres")
+	PostgresCacheInvalidationBus cacheInvalidationBus(JdbcConnectionDetails database,
+			@Value("${petclinic.cache.invalidation.channel:petclinic_cache}") String channel) {
+		return new PostgresCacheInvalidationBus(
+				new DriverManagerDataSource(database.getJdbcUrl(), database.getUsername(), database.getPassword()),
+				channel);
 	}
 
 	/**
-	 * Create a simple configuration that enable statistics via the JCache programmatic
-	 * configuration API.
+	 * Create a Caffeine builder from the given specification, always recording statistics
+	 * so that the cache metrics are meaningful.
 	 * <p>
-	 * Within the configuration object that is provided by the JCache API standard, there
-	 * is only a very limited set of configuration options. The really relevant
-	 * configuration options (like the size limit) must be set via a configuration
-	 * mechanism that is provided by the selected JCache implementation.
+	 * A {@code refreshAfterWrite} specification requires a {@link NamedCacheLoader} for
+	 * the cache, otherwise Caffeine rejects it when the cache is built.
 	 */
-	private javax.cache.configuration.Configuration<Object, Object> cacheConfiguration() {
-		return new MutableConfiguration<>().setStatisticsEnabled(true);
+	private static Caffeine<Object, Object> caffeine(String spec, @Nullable Executor executor) {
+		Caffeine<Object, Object> caffeine = Caffeine.from(CaffeineSpec.parse(spec)).recordStats();
+		return (executor != null) ? caffeine.executor(executor) : caffeine;
 	}
 
 }
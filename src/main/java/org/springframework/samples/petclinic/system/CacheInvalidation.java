@@ -0,0 +1,90 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.system;
+
+import java.util.Objects;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Eviction of an entry, or of all the entries, of one of the application caches, as
+ * broadcast to the other instances of the application by a {@link CacheInvalidationBus}.
+ * Only {@link String}, {@link Integer} and {@link Long} keys are sent as such, the
+ * eviction of any other key clears the whole cache on the other instances.
+ */
+public final class CacheInvalidation {
+
+	private final String cacheName;
+
+	@Nullable
+	private final Object key;
+
+	private CacheInvalidation(String cacheName, @Nullable Object key) {
+		this.cacheName = cacheName;
+		this.key = key;
+	}
+
+	/**
+	 * Create the eviction of the given key.
+	 * @param cacheName the name of the cache
+	 * @param key the evicted key
+	 * @return the invalidation of the key, or of the whole cache if the key is of an
+	 * unsupported type
+	 */
+	public static CacheInvalidation evict(String cacheName, Object key) {
+		boolean supported = key instanceof String || key instanceof Integer || key instanceof Long;
+		return new CacheInvalidation(cacheName, supported ? key : null);
+	}
+
+	/**
+	 * Create the eviction of all the entries of a cache.
+	 * @param cacheName the name of the cache
+	 * @return the invalidation of the whole cache
+	 */
+	public static CacheInvalidation clear(String cacheName) {
+		return new CacheInvalidation(cacheName, null);
+	}
+
+	public String getCacheName() {
+		return this.cacheName;
+	}
+
+	/**
+	 * @return the evicted key, or {@literal null} if the whole cache is cleared
+	 */
+	@Nullable
+	public Object getKey() {
+		return this.key;
+	}
+
+	@Override
+	public boolean equals(Object other) {
+		return this == other || (other instanceof CacheInvalidation invalidation
+				&& this.cacheName.equals(invalidation.cacheName) && Objects.equals(this.key, invalidation.key));
+	}
+
+	@Override
+	public int hashCode() {
+		return this.cacheName.hashCode() * 31 + ((this.key != null) ? this.key.hashCode() : 0);
+	}
+
+	@Override
+	public String toString() {
+		return "CacheInvalidation[cacheName=" + this.cacheName + ", key=" + this.key + "]";
+	}
+
+}
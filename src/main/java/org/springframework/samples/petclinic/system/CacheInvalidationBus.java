@@ -0,0 +1,58 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.system;
+
+import java.util.function.Consumer;
+
+/**
+ * Broadcasts the evictions of the application caches between the instances of the
+ * application, so that several replicas can each keep their caches without serving
+ * entries another replica changed. When a bus is available, the cache manager publishes
+ * every eviction made locally and applies the ones received from the other instances.
+ * <p>
+ * Delivery is best effort: implementations that may lose invalidations, for instance
+ * while reconnecting, should report it as a {@link CacheInvalidationListener#missed()} so
+ * that the caches are cleared instead of being left stale.
+ */
+public interface CacheInvalidationBus {
+
+	/**
+	 * Send the given invalidation to the other instances.
+	 * @param invalidation the local eviction
+	 */
+	void publish(CacheInvalidation invalidation);
+
+	/**
+	 * Register the listener of the invalidations published by the other instances. The
+	 * invalidations published by this instance are not delivered back to it.
+	 * @param listener the listener
+	 */
+	void subscribe(CacheInvalidationListener listener);
+
+	/**
+	 * Receives the invalidations published by the other instances.
+	 */
+	interface CacheInvalidationListener extends Consumer<CacheInvalidation> {
+
+		/**
+		 * Called when invalidations may have been lost.
+		 */
+		void missed();
+
+	}
+
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.system;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Caffeine specifications of the application caches, for instance
+ * {@code petclinic.cache.specs.vets=maximumSize=100,refreshAfterWrite=5m}. See
+ * {@link com.github.benmanes.caffeine.cache.CaffeineSpec} for the supported options.
+ */
+@ConfigurationProperties("petclinic.cache")
+public class CacheSpecProperties {
+
+	/**
+	 * Specification used for caches without an entry in {@link #getSpecs()}.
+	 */
+	private String defaultSpec = "maximumSize=1000,expireAfterWrite=10m";
+
+	/**
+	 * Specification per cache name. The caches listed here are created eagerly, so their
+	 * statistics are published as metrics from startup.
+	 */
+	private final Map<String, String> specs = new LinkedHashMap<>();
+
+	public String getDefaultSpec() {
+		return this.defaultSpec;
+	}
+
+	public void setDefaultSpec(String defaultSpec) {
+		this.defaultSpec = defaultSpec;
+	}
+
+	public Map<String, String> getSpecs() {
+		return this.specs;
+	}
+
+}
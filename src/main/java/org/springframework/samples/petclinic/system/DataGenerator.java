@@ -0,0 +1,288 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.system;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.SqlTypeValue;
+import org.springframework.jdbc.core.StatementCreatorUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Fills the database with a large synthetic set of owners, pets and visits for load
+ * testing, when the {@value #PROFILE} profile is active, for instance
+ * {@code -Dspring.profiles.active=postgres,generate-data}. See
+ * {@link DataGeneratorProperties} for the size of the dataset.
+ * <p>
+ * Last names follow a realistic distribution: the most common names are drawn with their
+ * census frequencies and the long tail is made of synthetic names. Rows are inserted with
+ * JDBC batches in plain SQL that runs on all the supported databases, letting the
+ * database assign the ids. With MySQL, add {@code rewriteBatchedStatements=true} to the
+ * connection URL for the batches to be sent as multi-row inserts.
+ */
+@Component
+@Profile(DataGenerator.PROFILE)
+@EnableConfigurationProperties(DataGeneratorProperties.class)
+public class DataGenerator implements ApplicationRunner {
+
+	/**
+	 * Profile enabling the generation of data on startup.
+	 */
+	public static final String PROFILE = "generate-data";
+
+	private static final String SEQUENCE_IDS_PROFILE = "sequence-ids";
+
+	private static final int SEQUENCE_INCREMENT = 50;
+
+	private static final Log logger = LogFactory.getLog(DataGenerator.class);
+
+	// most common US last names and their frequency per 100,000 people (2010 census)
+	private static final String[] COMMON_LAST_NAMES = { "Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia",
+			"Miller", "Davis", "Rodriguez", "Martinez", "Hernandez", "Lopez", "Gonzalez", "Wilson", "Anderson",
+			"Thomas", "Taylor", "Moore", "Jackson", "Martin", "Lee", "Perez", "Thompson", "White", "Harris", "Sanchez",
+			"Clark", "Ramirez", "Lewis", "Robinson", "Walker", "Young", "Allen", "King", "Wright", "Scott", "Torres",
+			"Nguyen", "Hill", "Flores", "Green", "Adams", "Nelson", "Baker", "Hall", "Rivera", "Campbell", "Mitchell",
+			"Carter", "Roberts" };
+
+	private static final int[] COMMON_LAST_NAME_FREQUENCIES = { 828, 655, 551, 487, 483, 391, 382, 374, 361, 351, 350,
+			293, 287, 282, 271, 264, 262, 245, 241, 240, 233, 225, 221, 221, 206, 201, 190, 189, 183, 180, 176, 165,
+			163, 161, 161, 152, 150, 149, 148, 148, 146, 145, 143, 141, 138, 131, 130, 128, 128, 127 };
+
+	private static final int POPULATION = 100_000;
+
+	private static final String[] NAME_STARTS = { "Ab", "Bel", "Car", "Dal", "Ed", "Fen", "Gar", "Hol", "Ing", "Jan",
+			"Kel", "Lam", "Mor", "Nor", "Ost", "Pal", "Quin", "Ros", "Sal", "Tor", "Ul", "Van", "Wes", "Yar", "Zel" };
+
+	private static final String[] NAME_MIDDLES = { "", "a", "e", "i", "o", "an", "er", "in", "ol", "ov" };
+
+	private static final String[] NAME_ENDS = { "son", "man", "ton", "berg", "ski", "ez", "ley", "ford", "well", "er",
+			"ich", "ard" };
+
+	private static final String[] FIRST_NAMES = { "James", "Mary", "Robert", "Patricia", "John", "Jennifer", "Michael",
+			"Linda", "David", "Elizabeth", "William", "Barbara", "Richard", "Susan", "Joseph", "Jessica", "Thomas",
+			"Sarah", "Charles", "Karen", "Daniel", "Lisa", "Matthew", "Nancy", "Anthony", "Betty", "Mark", "Sandra" };
+
+	private static final String[] STREETS = { "Main St.", "Oak Ave.", "Maple St.", "Cedar Rd.", "Elm St.", "Lake Dr.",
+			"Hill Rd.", "Park Ave.", "Pine St.", "Washington Ave." };
+
+	private static final String[] CITIES = { "Madison", "Sun Prairie", "McFarland", "Windsor", "Monona", "Waunakee",
+			"Middleton", "Verona", "Fitchburg", "Stoughton" };
+
+	private static final String[] PET_NAMES = { "Leo", "Basil", "Rosy", "Jewel", "Iggy", "George", "Samantha", "Max",
+			"Lucky", "Mulligan", "Freddy", "Bella", "Charlie", "Luna", "Lucy", "Daisy", "Milo", "Coco", "Rocky",
+			"Bailey", "Oliver", "Ruby", "Teddy", "Willow" };
+
+	private static final String[] VISIT_DESCRIPTIONS = { "rabies shot", "neutered", "spayed", "annual checkup",
+			"dental cleaning", "vaccination", "skin allergy", "ear infection", "limping", "weight check" };
+
+	private final JdbcTemplate jdbc;
+
+	private final TransactionTemplate transactions;
+
+	private final DataGeneratorProperties properties;
+
+	private final Environment environment;
+
+	public DataGenerator(JdbcTemplate jdbc, TransactionTemplate transactions, DataGeneratorProperties properties,
+			Environment environment) {
+		this.jdbc = jdbc;
+		this.transactions = transactions;
+		this.properties = properties;
+		this.environment = environment;
+	}
+
+	@Override
+	public void run(ApplicationArguments args) {
+		generate();
+	}
+
+	/**
+	 * Add owners, with their pets and visits, until the database holds the configured
+	 * number of owners.
+	 * @return the number of generated owners
+	 */
+	public int generate() {
+		Integer existing = this.jdbc.queryForObject("SELECT COUNT(*) FROM owners", Integer.class);
+		int missing = this.properties.getOwners() - ((existing != null) ? existing : 0);
+		if (missing <= 0) {
+			logger.info("Database already holds " + existing + " owners, no data generated");
+			return 0;
+		}
+		List<Integer> typeIds = this.jdbc.queryForList("SELECT id FROM types", Integer.class);
+		// a different seed when resuming, so that the added owners are not the same again
+		Random random = new Random(this.properties.getSeed() + existing);
+		long start = System.currentTimeMillis();
+		for (int generated = 0; generated < missing;) {
+			int size = Math.min(this.properties.getBatchSize(), missing - generated);
+			this.transactions.executeWithoutResult(status -> generateOwners(size, typeIds, random));
+			generated += size;
+			if (generated % 100_000 < size || generated == missing) {
+				logger.info("Generated " + generated + " of " + missing + " owners in "
+						+ (System.currentTimeMillis() - start) + " ms");
+			}
+		}
+		if (this.environment.acceptsProfiles(Profiles.of(SEQUENCE_IDS_PROFILE))) {
+			restartSequences();
+		}
+		return missing;
+	}
+
+	/**
+	 * Move the id sequences past the generated rows, which got their ids from identity
+	 * columns. A sequence value hands out the block of {@value #SEQUENCE_INCREMENT} ids
+	 * ending with it, so the next value must be at least that far above the last id. A
+	 * sequence is only ever moved forward, never back below ids it already handed out.
+	 */
+	private void restartSequences() {
+		String database = this.jdbc.execute((ConnectionCallback<String>) connection -> connection.getMetaData()
+			.getDatabaseProductName()
+			.toLowerCase(Locale.ROOT));
+		for (String table : new String[] { "owners", "pets", "visits" }) {
+			Integer lastId = this.jdbc.queryForObject("SELECT MAX(id) FROM " + table, Integer.class);
+			long next = ((lastId != null) ? lastId : 0) + SEQUENCE_INCREMENT;
+			if (database.contains("mysql")) {
+				// MySQL has no sequences, they are emulated with single row tables
+				this.jdbc.update("UPDATE " + table + "_seq SET next_val = GREATEST(next_val, ?)", next);
+			}
+			else if (database.contains("postgresql")) {
+				// the value set is the last one handed out, the next one is a block above
+				this.jdbc.queryForObject(
+						"SELECT setval('" + table + "_seq', GREATEST(last_value, ?)) FROM " + table + "_seq",
+						Long.class, next - SEQUENCE_INCREMENT);
+			}
+			else {
+				// the embedded databases cannot restart a sequence conditionally, so its
+				// next value is drawn first and only restarted when below
+				Long current = this.jdbc.queryForObject("CALL NEXT VALUE FOR " + table + "_seq", Long.class);
+				if (current != null && current < next) {
+					this.jdbc.execute("ALTER SEQUENCE " + table + "_seq RESTART WITH " + next);
+				}
+			}
+		}
+	}
+
+	private void generateOwners(int size, List<Integer> typeIds, Random random) {
+		List<Object[]> owners = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			owners.add(new Object[] { pick(FIRST_NAMES, random), lastName(random),
+					(1 + random.nextInt(9999)) + " " + pick(STREETS, random), pick(CITIES, random),
+					String.format("608%07d", random.nextInt(10_000_000)) });
+		}
+		List<Integer> ownerIds = insert(
+				"INSERT INTO owners (first_name, last_name, address, city, telephone) VALUES (?, ?, ?, ?, ?)", owners);
+
+		LocalDate today = LocalDate.now();
+		List<Object[]> pets = new ArrayList<>();
+		for (Integer ownerId : ownerIds) {
+			int petCount = 1 + random.nextInt(this.properties.getMaxPetsPerOwner());
+			for (int p = 0; p < petCount; p++) {
+				LocalDate birthDate = today.minusDays(1 + random.nextInt(15 * 365));
+				pets.add(new Object[] { pick(PET_NAMES, random), birthDate, typeIds.get(random.nextInt(typeIds.size())),
+						ownerId });
+			}
+		}
+		List<Integer> petIds = insert("INSERT INTO pets (name, birth_date, type_id, owner_id) VALUES (?, ?, ?, ?)",
+				pets);
+
+		List<Object[]> visits = new ArrayList<>();
+		for (int p = 0; p < petIds.size(); p++) {
+			LocalDate birthDate = (LocalDate) pets.get(p)[1];
+			int days = (int) (today.toEpochDay() - birthDate.toEpochDay());
+			int visitCount = random.nextInt(this.properties.getMaxVisitsPerPet() + 1);
+			for (int v = 0; v < visitCount; v++) {
+				visits.add(new Object[] { petIds.get(p), birthDate.plusDays(random.nextInt(days + 1)),
+						pick(VISIT_DESCRIPTIONS, random) });
+			}
+		}
+		batchUpdate("INSERT INTO visits (pet_id, visit_date, description) VALUES (?, ?, ?)", visits);
+	}
+
+	/**
+	 * Insert the given rows and return their generated ids, in insertion order. The ids
+	 * are the generated keys of each batch, so that rows inserted meanwhile by the
+	 * application or by another instance are never mistaken for generated ones.
+	 */
+	private List<Integer> insert(String sql, List<Object[]> rows) {
+		List<Integer> ids = new ArrayList<>(rows.size());
+		int batchSize = this.properties.getBatchSize();
+		for (int i = 0; i < rows.size(); i += batchSize) {
+			List<Object[]> batch = rows.subList(i, Math.min(i + batchSize, rows.size()));
+			this.jdbc.execute((ConnectionCallback<Void>) connection -> {
+				try (PreparedStatement statement = connection.prepareStatement(sql, new String[] { "id" })) {
+					for (Object[] row : batch) {
+						for (int column = 0; column < row.length; column++) {
+							StatementCreatorUtils.setParameterValue(statement, column + 1, SqlTypeValue.TYPE_UNKNOWN,
+									row[column]);
+						}
+						statement.addBatch();
+					}
+					statement.executeBatch();
+					try (ResultSet keys = statement.getGeneratedKeys()) {
+						while (keys.next()) {
+							ids.add(keys.getInt(1));
+						}
+					}
+				}
+				return null;
+			});
+		}
+		if (ids.size() != rows.size()) {
+			throw new IllegalStateException(
+					"Inserted " + rows.size() + " rows but the driver returned " + ids.size() + " generated ids");
+		}
+		return ids;
+	}
+
+	private void batchUpdate(String sql, List<Object[]> rows) {
+		int batchSize = this.properties.getBatchSize();
+		for (int i = 0; i < rows.size(); i += batchSize) {
+			this.jdbc.batchUpdate(sql, rows.subList(i, Math.min(i + batchSize, rows.size())));
+		}
+	}
+
+	private static String lastName(Random random) {
+		int draw = random.nextInt(POPULATION);
+		for (int i = 0; i < COMMON_LAST_NAMES.length; i++) {
+			draw -= COMMON_LAST_NAME_FREQUENCIES[i];
+			if (draw < 0) {
+				return COMMON_LAST_NAMES[i];
+			}
+		}
+		return pick(NAME_STARTS, random) + pick(NAME_MIDDLES, random) + pick(NAME_ENDS, random);
+	}
+
+	private static String pick(String[] values, Random random) {
+		return values[random.nextInt(values.length)];
+	}
+
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.system;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Size and shape of the synthetic dataset created by {@link DataGenerator}.
+ */
+@ConfigurationProperties("petclinic.generator")
+public class DataGeneratorProperties {
+
+	/**
+	 * Total number of owners to reach. Owners already in the database count towards it,
+	 * so restarting the application does not generate the data again.
+	 */
+	private int owners = 100_000;
+
+	/**
+	 * Maximum number of pets of a generated owner, who has at least one.
+	 */
+	private int maxPetsPerOwner = 3;
+
+	/**
+	 * Maximum number of visits of a generated pet.
+	 */
+	private int maxVisitsPerPet = 6;
+
+	/**
+	 * Number of owners inserted per transaction, and number of rows per JDBC batch.
+	 */
+	private int batchSize = 1000;
+
+	/**
+	 * Seed of the random generator, so that the same dataset can be generated again.
+	 */
+	private long seed = 42;
+
+	public int getOwners() {
+		return this.owners;
+	}
+
+	public void setOwners(int owners) {
+		this.owners = owners;
+	}
+
+	public int getMaxPetsPerOwner() {
+		return this.maxPetsPerOwner;
+	}
+
+	public void setMaxPetsPerOwner(int maxPetsPerOwner) {
+		this.maxPetsPerOwner = maxPetsPerOwner;
+	}
+
+	public int getMaxVisitsPerPet() {
+		return this.maxVisitsPerPet;
+	}
+
+	public void setMaxVisitsPerPet(int maxVisitsPerPet) {
+		this.maxVisitsPerPet = maxVisitsPerPet;
+	}
+
+	public int getBatchSize() {
+		return this.batchSize;
+	}
+
+	public void setBatchSize(int batchSize) {
+		this.batchSize = batchSize;
+	}
+
+	public long getSeed() {
+		return this.seed;
+	}
+
+	public void setSeed(long seed) {
+		this.seed = seed;
+	}
+
+}
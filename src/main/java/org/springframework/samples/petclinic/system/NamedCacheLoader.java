@@ -0,0 +1,37 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.system;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+
+/**
+ * {@link CacheLoader} for one of the application caches. Registering a loader as a bean
+ * turns the cache with the same name into a loading cache, which is required for its
+ * entries to be refreshed asynchronously ({@code refreshAfterWrite}) rather than simply
+ * expiring.
+ * <p>
+ * The loader must compute values directly from the data store: calling back into a
+ * {@code @Cacheable} method of the same cache would only return the stale entry.
+ */
+public interface NamedCacheLoader extends CacheLoader<Object, Object> {
+
+	/**
+	 * @return the name of the cache this loader computes values for
+	 */
+	String getCacheName();
+
+}
@@ -0,0 +1,284 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.system;
+
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Pattern;
+
+import javax.sql.DataSource;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * {@link CacheInvalidationBus} relying on the {@code LISTEN} and {@code NOTIFY} commands
+ * of PostgreSQL, so that the instances of the application sharing a database need nothing
+ * else to keep their caches consistent.
+ * <p>
+ * The bus opens two connections of its own from a non-pooled {@link DataSource}, never
+ * borrowing from the connection pool of the application, so that it can neither starve
+ * the pool nor wait on it while evicting a cache in a request holding a pooled
+ * connection. Invalidations are sent with {@code pg_notify} on one connection, in
+ * auto-commit mode and one at a time, and received by a thread listening on the other.
+ * Each instance therefore needs two database connections on top of its pool, to account
+ * for in {@code max_connections}.
+ * <p>
+ * Each payload names the instance that sent it, so that instances ignore their own
+ * invalidations. Notifications sent while the listening connection is down are lost, so
+ * all the caches are cleared whenever it is established again.
+ */
+class PostgresCacheInvalidationBus implements CacheInvalidationBus, SmartLifecycle {
+
+	private static final Log logger = LogFactory.getLog(PostgresCacheInvalidationBus.class);
+
+	private static final Pattern CHANNEL = Pattern.compile("[a-z_][a-z0-9_]*");
+
+	/**
+	 * Largest payload accepted by PostgreSQL, in bytes.
+	 */
+	private static final int MAX_PAYLOAD = 7999;
+
+	private static final int POLL_TIMEOUT_MILLIS = 500;
+
+	private static final long MAX_BACKOFF_MILLIS = 30_000;
+
+	private final DataSource connections;
+
+	private final String channel;
+
+	private final String instanceId = UUID.randomUUID().toString();
+
+	private final List<CacheInvalidationListener> listeners = new CopyOnWriteArrayList<>();
+
+	private final Object publishLock = new Object();
+
+	@Nullable
+	private Connection publishConnection;
+
+	private volatile boolean running;
+
+	@Nullable
+	private Thread thread;
+
+	/**
+	 * Create a bus on the given channel.
+	 * @param connections a {@link DataSource} opening a new physical connection on each
+	 * call, not the connection pool of the application
+	 * @param channel the name of the channel
+	 */
+	PostgresCacheInvalidationBus(DataSource connections, String channel) {
+		Assert.isTrue(CHANNEL.matcher(channel).matches(), () -> "Invalid channel name '" + channel + "'");
+		this.connections = connections;
+		this.channel = channel;
+	}
+
+	@Override
+	public void publish(CacheInvalidation invalidation) {
+		String payload = encode(invalidation);
+		if (payload.getBytes(StandardCharsets.UTF_8).length > MAX_PAYLOAD) {
+			payload = encode(CacheInvalidation.clear(invalidation.getCacheName()));
+		}
+		synchronized (this.publishLock) {
+			// a connection left broken by a restart of the database is only noticed when
+			// used, so a failed notification is retried once on a new connection
+			for (int attempt = 1;; attempt++) {
+				try {
+					if (this.publishConnection == null) {
+						this.publishConnection = this.connections.getConnection();
+					}
+					try (PreparedStatement statement = this.publishConnection
+						.prepareStatement("SELECT pg_notify(?, ?)")) {
+						statement.setString(1, this.channel);
+						statement.setString(2, payload);
+						statement.execute();
+					}
+					return;
+				}
+				catch (SQLException ex) {
+					closePublishConnection();
+					if (attempt == 2) {
+						// the local cache is already evicted, the other instances expire
+						// their entries
+						logger.warn("Could not publish " + invalidation, ex);
+						return;
+					}
+				}
+			}
+		}
+	}
+
+	@Override
+	public void subscribe(CacheInvalidationListener listener) {
+		this.listeners.add(listener);
+	}
+
+	@Override
+	public void start() {
+		this.running = true;
+		Thread thread = new Thread(this::listen, "cache-invalidation");
+		thread.setDaemon(true);
+		thread.start();
+		this.thread = thread;
+	}
+
+	@Override
+	public void stop() {
+		this.running = false;
+		Thread thread = this.thread;
+		if (thread != null) {
+			thread.interrupt();
+			try {
+				thread.join(POLL_TIMEOUT_MILLIS * 2);
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+			this.thread = null;
+		}
+		synchronized (this.publishLock) {
+			closePublishConnection();
+		}
+	}
+
+	@Override
+	public boolean isRunning() {
+		return this.running;
+	}
+
+	private void listen() {
+		long backoff = 0;
+		while (this.running) {
+			try (Connection connection = this.connections.getConnection()) {
+				try (Statement statement = connection.createStatement()) {
+					statement.execute("LISTEN " + this.channel);
+				}
+				backoff = 0;
+				this.listeners.forEach(CacheInvalidationListener::missed);
+				PGConnection notifications = connection.unwrap(PGConnection.class);
+				while (this.running) {
+					PGNotification[] received = notifications.getNotifications(POLL_TIMEOUT_MILLIS);
+					if (received != null) {
+						for (PGNotification notification : received) {
+							receive(notification.getParameter());
+						}
+					}
+				}
+			}
+			catch (SQLException ex) {
+				if (!this.running) {
+					return;
+				}
+				backoff = Math.min(Math.max(backoff * 2, 500), MAX_BACKOFF_MILLIS);
+				logger.warn("Listening to cache invalidations failed, retrying in " + backoff + "ms", ex);
+				try {
+					Thread.sleep(backoff);
+				}
+				catch (InterruptedException interrupted) {
+					Thread.currentThread().interrupt();
+					return;
+				}
+			}
+		}
+	}
+
+	private void closePublishConnection() {
+		if (this.publishConnection != null) {
+			try {
+				this.publishConnection.close();
+			}
+			catch (SQLException ex) {
+				logger.debug("Could not close the connection publishing cache invalidations", ex);
+			}
+			this.publishConnection = null;
+		}
+	}
+
+	private void receive(String payload) {
+		String[] parts = payload.split("\\|", -1);
+		if (parts.length != 3) {
+			logger.warn("Ignoring invalid cache invalidation '" + payload + "'");
+			return;
+		}
+		if (this.instanceId.equals(parts[0])) {
+			return;
+		}
+		CacheInvalidation invalidation;
+		try {
+			String cacheName = URLDecoder.decode(parts[1], StandardCharsets.UTF_8);
+			Object key = decodeKey(parts[2]);
+			invalidation = (key != null) ? CacheInvalidation.evict(cacheName, key) : CacheInvalidation.clear(cacheName);
+		}
+		catch (IllegalArgumentException ex) {
+			logger.warn("Ignoring invalid cache invalidation '" + payload + "'", ex);
+			return;
+		}
+		this.listeners.forEach(listener -> listener.accept(invalidation));
+	}
+
+	/**
+	 * Encode the given invalidation as {@code instance|cache|key}, the cache name and the
+	 * key being URL encoded and the key prefixed by its type, or empty to clear the
+	 * cache.
+	 */
+	private String encode(CacheInvalidation invalidation) {
+		Object key = invalidation.getKey();
+		String encodedKey;
+		if (key instanceof Integer) {
+			encodedKey = "i:" + key;
+		}
+		else if (key instanceof Long) {
+			encodedKey = "l:" + key;
+		}
+		else if (key instanceof String string) {
+			encodedKey = "s:" + URLEncoder.encode(string, StandardCharsets.UTF_8);
+		}
+		else {
+			encodedKey = "";
+		}
+		return this.instanceId + "|" + URLEncoder.encode(invalidation.getCacheName(), StandardCharsets.UTF_8) + "|"
+				+ encodedKey;
+	}
+
+	@Nullable
+	private static Object decodeKey(String encodedKey) {
+		if (encodedKey.isEmpty()) {
+			return null;
+		}
+		String value = encodedKey.substring(2);
+		return switch (encodedKey.substring(0, 2)) {
+			case "i:" -> Integer.valueOf(value);
+			case "l:" -> Long.valueOf(value);
+			case "s:" -> URLDecoder.decode(value, StandardCharsets.UTF_8);
+			default -> throw new IllegalArgumentException("Invalid cache key '" + encodedKey + "'");
+		};
+	}
+
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.system;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.Properties;
+
+import javax.cache.CacheManager;
+import javax.cache.spi.CachingProvider;
+
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+
+import com.github.benmanes.caffeine.jcache.CacheManagerImpl;
+
+/**
+ * {@link JCacheRegionFactory} giving each session factory a JCache manager of its own.
+ * The managers of a caching provider are shared by URI, and Hibernate closes its manager
+ * when the session factory is closed, which would close the regions of any other session
+ * factory, such as the ones of the application contexts cached by the tests.
+ */
+public class SecondLevelCacheRegionFactory extends JCacheRegionFactory {
+
+	@Override
+	protected CacheManager resolveCacheManager(SessionFactoryOptions settings, Map<String, Object> properties) {
+		CachingProvider provider = getCachingProvider(properties);
+		// Caffeine resolves classpath: URIs itself, unlike Hibernate's resource lookup
+		Object uri = properties.get(ConfigSettings.CONFIG_URI);
+		return new CacheManagerImpl(provider, false,
+				(uri != null) ? URI.create(uri.toString()) : provider.getDefaultURI(), getClassLoader(provider),
+				new Properties());
+	}
+
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.system;
+
+import java.time.Duration;
+import java.util.stream.Collectors;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+
+/**
+ * Reports virtual threads that stay pinned to their carrier thread while blocking, for
+ * instance in JDBC driver code holding a monitor. Pinned threads hold on to one of the
+ * few carrier threads, so they limit the concurrency virtual threads are meant to give.
+ * <p>
+ * Pinning is observed through the {@code jdk.VirtualThreadPinned} JFR event: each event
+ * longer than {@code petclinic.virtual-threads.pinned-threshold} is counted in the
+ * {@value #PINNED_METRIC} metric and logged with its stack trace.
+ */
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+class VirtualThreadPinningMonitor implements SmartLifecycle {
+
+	static final String PINNED_METRIC = "petclinic.virtual.threads.pinned";
+
+	private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+	private static final Log logger = LogFactory.getLog(VirtualThreadPinningMonitor.class);
+
+	private static final int LOGGED_FRAMES = 12;
+
+	private final Duration threshold;
+
+	private final Counter pinned;
+
+	private volatile RecordingStream recording;
+
+	VirtualThreadPinningMonitor(@Value("${petclinic.virtual-threads.pinned-threshold:20ms}") Duration threshold,
+			MeterRegistry registry) {
+		this.threshold = threshold;
+		this.pinned = Counter.builder(PINNED_METRIC)
+			.description("Virtual threads pinned to their carrier for longer than the threshold")
+			.register(registry);
+	}
+
+	@Override
+	public void start() {
+		RecordingStream recording = new RecordingStream();
+		recording.enable(PINNED_EVENT).withThreshold(this.threshold).withStackTrace();
+		recording.onEvent(PINNED_EVENT, this::pinned);
+		recording.startAsync();
+		this.recording = recording;
+	}
+
+	private void pinned(RecordedEvent event) {
+		this.pinned.increment();
+		if (logger.isWarnEnabled()) {
+			String frames = (event.getStackTrace() != null) ? event.getStackTrace()
+				.getFrames()
+				.stream()
+				.limit(LOGGED_FRAMES)
+				.map(VirtualThreadPinningMonitor::format)
+				.collect(Collectors.joining("\n\tat ", "\n\tat ", "")) : "";
+			logger.warn("Virtual thread pinned to its carrier for " + event.getDuration().toMillis() + " ms" + frames);
+		}
+	}
+
+	private static String format(RecordedFrame frame) {
+		return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + "(line "
+				+ frame.getLineNumber() + ")";
+	}
+
+	@Override
+	public void stop() {
+		RecordingStream recording = this.recording;
+		if (recording != null) {
+			recording.close();
+			this.recording = null;
+		}
+	}
+
+	@Override
+	public boolean isRunning() {
+		return this.recording != null;
+	}
+
+}
@@ -15,6 +15,9 @@
  */
 package org.springframework.samples.petclinic.vet;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Immutable;
 import org.springframework.samples.petclinic.model.NamedEntity;
 
 import jakarta.persistence.Entity;
@@ -27,6 +30,8 @@ import jakarta.persistence.Table;
  */
 @Entity
 @Table(name = "specialties")
+@Immutable
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = "specialties")
 public class Specialty extends NamedEntity {
 
 }
@@ -19,8 +19,9 @@ import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
-import java.util.stream.Collectors;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.samples.petclinic.model.NamedEntity;
 import org.springframework.samples.petclinic.model.Person;
 
@@ -42,13 +43,23 @@ import jakarta.xml.bind.annotation.XmlElement;
  */
 @Entity
 @Table(name = "vets")
+@Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE, region = "vets")
 public class Vet extends Person {
 
+	// the specialties of a vet are kept in the second-level cache as specialty ids, so
+	// loading a cached vet neither joins nor queries vet_specialties
 	@ManyToMany(fetch = FetchType.EAGER)
 	@JoinTable(name = "vet_specialties", joinColumns = @JoinColumn(name = "vet_id"),
 			inverseJoinColumns = @JoinColumn(name = "specialty_id"))
+	@Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE, region = "vet_specialties")
 	private Set<Specialty> specialties;
 
+	// sorted, immutable view of the specialties, computed on first use and reset whenever
+	// a specialty is added. Vets are shared through the vets cache and rendered many
+	// times, so the view is not rebuilt on every call. Racing threads may each compute it
+	// once, which is harmless as the list is immutable.
+	private transient List<Specialty> sortedSpecialties;
+
 	protected Set<Specialty> getSpecialtiesInternal() {
 		if (this.specialties == null) {
 			this.specialties = new HashSet<>();
@@ -58,9 +69,12 @@ public class Vet extends Person {
 
 	@XmlElement
 	public List<Specialty> getSpecialties() {
-		return getSpecialtiesInternal().stream()
-			.sorted(Comparator.comparing(NamedEntity::getName))
-			.collect(Collectors.toList());
+		List<Specialty> sorted = this.sortedSpecialties;
+		if (sorted == null) {
+			sorted = getSpecialtiesInternal().stream().sorted(Comparator.comparing(NamedEntity::getName)).toList();
+			this.sortedSpecialties = sorted;
+		}
+		return sorted;
 	}
 
 	public int getNrOfSpecialties() {
@@ -69,6 +83,7 @@ public class Vet extends Person {
 
 	public void addSpecialty(Specialty specialty) {
 		getSpecialtiesInternal().add(specialty);
+		this.sortedSpecialties = null;
 	}
 
 }
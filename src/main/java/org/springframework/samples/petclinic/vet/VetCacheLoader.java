@@ -0,0 +1,49 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.vet;
+
+import java.util.List;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.samples.petclinic.system.NamedCacheLoader;
+import org.springframework.stereotype.Component;
+
+/**
+ * Loads the full list of vets into the {@link VetRepository#VETS_CACHE vets cache} with a
+ * single query, so that the cache can be refreshed in the background instead of expiring.
+ */
+@Component
+class VetCacheLoader implements NamedCacheLoader {
+
+	// resolved lazily so that creating the cache manager does not pull in the
+	// repositories
+	private final ObjectProvider<VetRepository> vets;
+
+	VetCacheLoader(ObjectProvider<VetRepository> vets) {
+		this.vets = vets;
+	}
+
+	@Override
+	public String getCacheName() {
+		return VetRepository.VETS_CACHE;
+	}
+
+	@Override
+	public List<Vet> load(Object key) {
+		return List.copyOf(this.vets.getObject().findAllWithSpecialties());
+	}
+
+}
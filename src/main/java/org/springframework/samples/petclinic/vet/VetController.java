@@ -15,16 +15,33 @@
  */
 package org.springframework.samples.petclinic.vet;
 
+import java.io.ByteArrayOutputStream;
 import java.util.List;
+import java.util.Locale;
 
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
+import org.springframework.util.StringUtils;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+import org.springframework.web.accept.ContentNegotiationManager;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
-import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.JAXBException;
 
 /**
  * @author Juergen Hoeller
@@ -35,19 +52,40 @@ import org.springframework.web.bind.annotation.ResponseBody;
 @Controller
 class VetController {
 
+	private static final List<MediaType> VETS_MEDIA_TYPES = List.of(MediaType.APPLICATION_JSON,
+			MediaType.APPLICATION_XML);
+
 	private final VetRepository vetRepository;
 
-	public VetController(VetRepository vetRepository) {
+	private final ContentNegotiationManager contentNegotiationManager;
+
+	private final ObjectMapper objectMapper;
+
+	private final JAXBContext xmlContext;
+
+	private volatile VetsVersion version;
+
+	public VetController(VetRepository vetRepository, ContentNegotiationManager contentNegotiationManager,
+			ObjectMapper objectMapper) throws JAXBException {
 		this.vetRepository = vetRepository;
+		this.contentNegotiationManager = contentNegotiationManager;
+		this.objectMapper = objectMapper;
+		this.xmlContext = JAXBContext.newInstance(Vets.class);
 	}
 
 	@GetMapping("/vets.html")
-	public String showVetList(@RequestParam(defaultValue = "1") int page, Model model) {
-		// Here we are returning an object of type 'Vets' rather than a collection of Vet
-		// objects so it is simpler for Object-Xml mapping
-		Vets vets = new Vets();
-		Page<Vet> paginated = findPaginated(page);
-		vets.getVetList().addAll(paginated.toList());
+	public String showVetList(@RequestParam(defaultValue = "1") int page, Locale locale, WebRequest request,
+			Model model) {
+		List<Vet> vets = this.vetRepository.findAll();
+		VetsVersion version = currentVersion(vets);
+		// the page is rendered in the user's language, so that is part of its version.
+		// The
+		// language is kept in the session, so without a Last-Modified date a switch of
+		// language cannot be answered with a 304 for the page in the previous language
+		if (request.checkNotModified(version.getEtag(locale.toLanguageTag()))) {
+			return null;
+		}
+		Page<Vet> paginated = findPaginated(page, vets);
 		return addPaginationModel(page, paginated, model);
 	}
 
@@ -60,19 +98,96 @@ class VetController {
 		return "vets/vetList";
 	}
 
-	private Page<Vet> findPaginated(int page) {
+	private Page<Vet> findPaginated(int page, List<Vet> vets) {
 		int pageSize = 5;
 		Pageable pageable = PageRequest.of(page - 1, pageSize);
-		return vetRepository.findAll(pageable);
+		// pages are cut from the cached list of all vets rather than queried one by one
+		int from = (int) Math.min(pageable.getOffset(), vets.size());
+		int to = Math.min(from + pageSize, vets.size());
+		return new PageImpl<>(vets.subList(from, to), pageable, vets.size());
+	}
+
+	@GetMapping(path = "/vets", produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_XML_VALUE })
+	public ResponseEntity<byte[]> showResourcesVetList(NativeWebRequest request)
+			throws HttpMediaTypeNotAcceptableException {
+		List<Vet> vets = this.vetRepository.findAll();
+		VetsVersion version = currentVersion(vets);
+		MediaType mediaType = selectMediaType(request);
+		boolean gzip = acceptsGzip(request);
+		// set before the conditional check, so that a 304 varies like the 200 it stands
+		// for, and each representation gets its own entity tag
+		HttpServletResponse servletResponse = request.getNativeResponse(HttpServletResponse.class);
+		if (servletResponse != null) {
+			servletResponse.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT + ", " + HttpHeaders.ACCEPT_ENCODING);
+		}
+		String variant = mediaType.getSubtype() + "-" + (gzip ? "gzip" : "identity");
+		if (request.checkNotModified(version.getEtag(variant), version.getLastModified())) {
+			return null;
+		}
+		// the serialized vets are cached with their version, so this is only serialized
+		// again once the vets cache has been reloaded
+		byte[] body = version.getRepresentation(mediaType, gzip, type -> serialize(vets, type));
+		ResponseEntity.BodyBuilder response = ResponseEntity.ok().contentType(mediaType);
+		if (gzip) {
+			response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+		}
+		return response.body(body);
+	}
+
+	private MediaType selectMediaType(NativeWebRequest request) throws HttpMediaTypeNotAcceptableException {
+		for (MediaType accepted : this.contentNegotiationManager.resolveMediaTypes(request)) {
+			for (MediaType producible : VETS_MEDIA_TYPES) {
+				if (accepted.includes(producible)) {
+					return producible;
+				}
+			}
+		}
+		return VETS_MEDIA_TYPES.get(0);
+	}
+
+	private static boolean acceptsGzip(WebRequest request) {
+		String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+		if (acceptEncoding == null) {
+			return false;
+		}
+		for (String coding : StringUtils.commaDelimitedListToStringArray(acceptEncoding)) {
+			String[] parts = coding.split(";");
+			if (parts[0].trim().equalsIgnoreCase("gzip")) {
+				return parts.length == 1 || !parts[1].trim().matches("q=0(\\.0*)?");
+			}
+		}
+		return false;
+	}
+
+	private byte[] serialize(List<Vet> vets, MediaType mediaType) {
+		// Here we are serializing an object of type 'Vets' rather than a collection of
+		// Vet objects so it is simpler for JSon/Object mapping
+		Vets result = new Vets();
+		result.getVetList().addAll(vets);
+		try {
+			if (MediaType.APPLICATION_XML.equals(mediaType)) {
+				ByteArrayOutputStream xml = new ByteArrayOutputStream();
+				this.xmlContext.createMarshaller().marshal(result, xml);
+				return xml.toByteArray();
+			}
+			return this.objectMapper.writeValueAsBytes(result);
+		}
+		catch (JAXBException | JsonProcessingException ex) {
+			throw new IllegalStateException("Failed to serialize vets as " + mediaType, ex);
+		}
 	}
 
-	@GetMapping({ "/vets" })
-	public @ResponseBody Vets showResourcesVetList() {
-		// Here we are returning an object of type 'Vets' rather than a collection of Vet
-		// objects so it is simpler for JSon/Object mapping
-		Vets vets = new Vets();
-		vets.getVetList().addAll(this.vetRepository.findAll());
-		return vets;
+	/**
+	 * Return the version of the given list of vets, only computing it again when the
+	 * cached list has been reloaded.
+	 */
+	private VetsVersion currentVersion(List<Vet> vets) {
+		VetsVersion current = this.version;
+		if (current == null || !current.isFor(vets)) {
+			current = VetsVersion.of(vets, current);
+			this.version = current;
+		}
+		return current;
 	}
 
 }
@@ -15,14 +15,17 @@
  */
 package org.springframework.samples.petclinic.vet;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.dao.DataAccessException;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Collection;
+import java.util.List;
+
+import jakarta.persistence.QueryHint;
 
 /**
  * Repository class for <code>Vet</code> domain objects All method names are compliant
@@ -38,21 +41,30 @@ import java.util.Collection;
 public interface VetRepository extends Repository<Vet, Integer> {
 
 	/**
-	 * Retrieve all <code>Vet</code>s from the data store.
-	 * @return a <code>Collection</code> of <code>Vet</code>s
+	 * Name of the cache holding the full list of vets.
+	 */
+	String VETS_CACHE = "vets";
+
+	/**
+	 * Retrieve all <code>Vet</code>s from the data store. The list is cached as a single
+	 * entry, pages of vets are derived from it in memory.
+	 * @return a <code>List</code> of <code>Vet</code>s
 	 */
 	@Transactional(readOnly = true)
-	@Cacheable("vets")
-	Collection<Vet> findAll() throws DataAccessException;
+	@Cacheable(cacheNames = VETS_CACHE, key = "'all'")
+	List<Vet> findAll() throws DataAccessException;
 
 	/**
-	 * Retrieve all <code>Vet</code>s from data store in Pages
-	 * @param pageable
-	 * @return
-	 * @throws DataAccessException
+	 * Retrieve all <code>Vet</code>s with their specialties in a single query, bypassing
+	 * the cache. Used to (re)load the {@link #VETS_CACHE vets cache}. The result is kept
+	 * in the Hibernate query cache, which is invalidated whenever a vet or a specialty is
+	 * written through Hibernate, so a reload is usually served from the second-level
+	 * cache.
+	 * @return a <code>List</code> of <code>Vet</code>s ordered by id
 	 */
 	@Transactional(readOnly = true)
-	@Cacheable("vets")
-	Page<Vet> findAll(Pageable pageable) throws DataAccessException;
+	@Query("SELECT DISTINCT vet FROM Vet vet LEFT JOIN FETCH vet.specialties ORDER BY vet.id")
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+	List<Vet> findAllWithSpecialties() throws DataAccessException;
 
 }
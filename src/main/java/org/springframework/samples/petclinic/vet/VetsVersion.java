@@ -0,0 +1,128 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.vet;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.http.MediaType;
+import org.springframework.lang.Nullable;
+import org.springframework.util.DigestUtils;
+
+/**
+ * Version of a cached list of vets, used to answer conditional requests. The entity tag
+ * is a digest of the vets and their specialties, so it is the same on every instance of
+ * the application; the last modification time is when this content was first seen.
+ * <p>
+ * The serialized representations of the list are kept with its version, so they are
+ * computed once per media type and encoding, and dropped as soon as the vets cache hands
+ * out a reloaded list.
+ */
+final class VetsVersion {
+
+	private final List<Vet> vets;
+
+	private final String digest;
+
+	private final long lastModified;
+
+	private final Map<String, byte[]> representations = new ConcurrentHashMap<>();
+
+	private VetsVersion(List<Vet> vets, String digest, long lastModified) {
+		this.vets = vets;
+		this.digest = digest;
+		this.lastModified = lastModified;
+	}
+
+	/**
+	 * Compute the version of the given list of vets.
+	 * @param vets the vets, as cached
+	 * @param previous the version of the previously cached list, if any; its last
+	 * modification time is kept when the content did not change
+	 * @return the version of the list
+	 */
+	static VetsVersion of(List<Vet> vets, @Nullable VetsVersion previous) {
+		StringBuilder content = new StringBuilder();
+		for (Vet vet : vets) {
+			content.append(vet.getId()).append(':').append(vet.getFirstName()).append(':').append(vet.getLastName());
+			for (Specialty specialty : vet.getSpecialties()) {
+				content.append(':').append(specialty.getId()).append('=').append(specialty.getName());
+			}
+			content.append(';');
+		}
+		String digest = DigestUtils.md5DigestAsHex(content.toString().getBytes(StandardCharsets.UTF_8));
+		long lastModified = (previous != null && previous.digest.equals(digest)) ? previous.lastModified
+				: Instant.now().truncatedTo(ChronoUnit.SECONDS).toEpochMilli();
+		return new VetsVersion(vets, digest, lastModified);
+	}
+
+	/**
+	 * @param vets a list of vets, as cached
+	 * @return whether this version was computed for that very list instance
+	 */
+	boolean isFor(List<Vet> vets) {
+		return this.vets == vets;
+	}
+
+	/**
+	 * @param variant distinguishes representations of the same content, or an empty
+	 * string
+	 * @return a weak entity tag for the given representation of the vets
+	 */
+	String getEtag(String variant) {
+		return "W/\"" + this.digest + (variant.isEmpty() ? "" : "-" + variant) + "\"";
+	}
+
+	long getLastModified() {
+		return this.lastModified;
+	}
+
+	/**
+	 * Return a serialized representation of the vets, computing it on first use.
+	 * @param mediaType the media type of the representation
+	 * @param gzip whether the representation should be gzip encoded
+	 * @param serializer serializes the vets to the given media type
+	 * @return the representation, which must not be modified
+	 */
+	byte[] getRepresentation(MediaType mediaType, boolean gzip, Function<MediaType, byte[]> serializer) {
+		if (!gzip) {
+			return this.representations.computeIfAbsent(mediaType.toString(), key -> serializer.apply(mediaType));
+		}
+		byte[] plain = getRepresentation(mediaType, false, serializer);
+		return this.representations.computeIfAbsent(mediaType + ";gzip", key -> gzip(plain));
+	}
+
+	private static byte[] gzip(byte[] content) {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(content.length / 4);
+		try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+			out.write(content);
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+		return bytes.toByteArray();
+	}
+
+}
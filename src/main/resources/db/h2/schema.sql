@@ -41,7 +41,8 @@ CREATE TABLE owners (
   city       VARCHAR(80),
   telephone  VARCHAR(20)
 );
-CREATE INDEX owners_last_name ON owners (last_name);
+-- serves the last name searches and their (last_name, id) ordering without sorting
+CREATE INDEX owners_last_name_id ON owners (last_name, id);
 
 CREATE TABLE pets (
   id         INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
@@ -50,6 +51,8 @@ CREATE TABLE pets (
   type_id    INTEGER NOT NULL,
   owner_id   INTEGER
 );
+-- created before the foreign key, which then uses it instead of an index of its own
+CREATE INDEX pets_owner_id ON pets (owner_id);
 ALTER TABLE pets ADD CONSTRAINT fk_pets_owners FOREIGN KEY (owner_id) REFERENCES owners (id);
 ALTER TABLE pets ADD CONSTRAINT fk_pets_types FOREIGN KEY (type_id) REFERENCES types (id);
 CREATE INDEX pets_name ON pets (name);
@@ -60,5 +63,19 @@ CREATE TABLE visits (
   visit_date  DATE,
   description VARCHAR(255)
 );
-ALTER TABLE visits ADD CONSTRAINT fk_visits_pets FOREIGN KEY (pet_id) REFERENCES pets (id);
 CREATE INDEX visits_pet_id ON visits (pet_id);
+ALTER TABLE visits ADD CONSTRAINT fk_visits_pets FOREIGN KEY (pet_id) REFERENCES pets (id);
+
+-- ids assigned by Hibernate with the sequence-ids profile, above those of the sample data
+DROP SEQUENCE IF EXISTS vets_seq;
+DROP SEQUENCE IF EXISTS specialties_seq;
+DROP SEQUENCE IF EXISTS types_seq;
+DROP SEQUENCE IF EXISTS owners_seq;
+DROP SEQUENCE IF EXISTS pets_seq;
+DROP SEQUENCE IF EXISTS visits_seq;
+CREATE SEQUENCE vets_seq START WITH 100 INCREMENT BY 50;
+CREATE SEQUENCE specialties_seq START WITH 100 INCREMENT BY 50;
+CREATE SEQUENCE types_seq START WITH 100 INCREMENT BY 50;
+CREATE SEQUENCE owners_seq START WITH 100 INCREMENT BY 50;
+CREATE SEQUENCE pets_seq START WITH 100 INCREMENT BY 50;
+CREATE SEQUENCE visits_seq START WITH 100 INCREMENT BY 50;
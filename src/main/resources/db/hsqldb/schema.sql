@@ -41,7 +41,8 @@ CREATE TABLE owners (
   city       VARCHAR(80),
   telephone  VARCHAR(20)
 );
-CREATE INDEX owners_last_name ON owners (last_name);
+-- serves the last name searches and their (last_name, id) ordering without sorting
+CREATE INDEX owners_last_name_id ON owners (last_name, id);
 
 CREATE TABLE pets (
   id         INTEGER IDENTITY PRIMARY KEY,
@@ -62,3 +63,17 @@ CREATE TABLE visits (
 );
 ALTER TABLE visits ADD CONSTRAINT fk_visits_pets FOREIGN KEY (pet_id) REFERENCES pets (id);
 CREATE INDEX visits_pet_id ON visits (pet_id);
+
+-- ids assigned by Hibernate with the sequence-ids profile, above those of the sample data
+DROP SEQUENCE vets_seq IF EXISTS;
+DROP SEQUENCE specialties_seq IF EXISTS;
+DROP SEQUENCE types_seq IF EXISTS;
+DROP SEQUENCE owners_seq IF EXISTS;
+DROP SEQUENCE pets_seq IF EXISTS;
+DROP SEQUENCE visits_seq IF EXISTS;
+CREATE SEQUENCE vets_seq START WITH 100 INCREMENT BY 50;
+CREATE SEQUENCE specialties_seq START WITH 100 INCREMENT BY 50;
+CREATE SEQUENCE types_seq START WITH 100 INCREMENT BY 50;
+CREATE SEQUENCE owners_seq START WITH 100 INCREMENT BY 50;
+CREATE SEQUENCE pets_seq START WITH 100 INCREMENT BY 50;
+CREATE SEQUENCE visits_seq START WITH 100 INCREMENT BY 50;
@@ -32,7 +32,8 @@ CREATE TABLE IF NOT EXISTS owners (
   address VARCHAR(255),
   city VARCHAR(80),
   telephone VARCHAR(20),
-  INDEX(last_name)
+  -- the default collation is case insensitive, so this also serves case insensitive searches
+  INDEX(last_name, id)
 ) engine=InnoDB;
 
 CREATE TABLE IF NOT EXISTS pets (
@@ -53,3 +54,28 @@ CREATE TABLE IF NOT EXISTS visits (
   description VARCHAR(255),
   FOREIGN KEY (pet_id) REFERENCES pets(id)
 ) engine=InnoDB;
+
+-- ids assigned by Hibernate with the sequence-ids profile, above those of the sample data.
+-- MySQL has no sequences, Hibernate emulates them with these single row tables
+CREATE TABLE IF NOT EXISTS vets_seq (next_val BIGINT) engine=InnoDB;
+INSERT INTO vets_seq (next_val) SELECT 100 FROM DUAL WHERE NOT EXISTS (SELECT * FROM vets_seq);
+CREATE TABLE IF NOT EXISTS specialties_seq (next_val BIGINT) engine=InnoDB;
+INSERT INTO specialties_seq (next_val) SELECT 100 FROM DUAL WHERE NOT EXISTS (SELECT * FROM specialties_seq);
+CREATE TABLE IF NOT EXISTS types_seq (next_val BIGINT) engine=InnoDB;
+INSERT INTO types_seq (next_val) SELECT 100 FROM DUAL WHERE NOT EXISTS (SELECT * FROM types_seq);
+CREATE TABLE IF NOT EXISTS owners_seq (next_val BIGINT) engine=InnoDB;
+INSERT INTO owners_seq (next_val) SELECT 100 FROM DUAL WHERE NOT EXISTS (SELECT * FROM owners_seq);
+CREATE TABLE IF NOT EXISTS pets_seq (next_val BIGINT) engine=InnoDB;
+INSERT INTO pets_seq (next_val) SELECT 100 FROM DUAL WHERE NOT EXISTS (SELECT * FROM pets_seq);
+CREATE TABLE IF NOT EXISTS visits_seq (next_val BIGINT) engine=InnoDB;
+INSERT INTO visits_seq (next_val) SELECT 100 FROM DUAL WHERE NOT EXISTS (SELECT * FROM visits_seq);
+
+-- the database may already hold rows, so each sequence is moved past the last id: a
+-- sequence value hands out the block of 50 ids ending with it. The AUTO_INCREMENT
+-- counters need no such care, InnoDB moves them past any id inserted explicitly
+UPDATE vets_seq SET next_val = GREATEST(next_val, (SELECT COALESCE(MAX(id), 0) + 50 FROM vets));
+UPDATE specialties_seq SET next_val = GREATEST(next_val, (SELECT COALESCE(MAX(id), 0) + 50 FROM specialties));
+UPDATE types_seq SET next_val = GREATEST(next_val, (SELECT COALESCE(MAX(id), 0) + 50 FROM types));
+UPDATE owners_seq SET next_val = GREATEST(next_val, (SELECT COALESCE(MAX(id), 0) + 50 FROM owners));
+UPDATE pets_seq SET next_val = GREATEST(next_val, (SELECT COALESCE(MAX(id), 0) + 50 FROM pets));
+UPDATE visits_seq SET next_val = GREATEST(next_val, (SELECT COALESCE(MAX(id), 0) + 50 FROM visits));
@@ -3,13 +3,13 @@ CREATE TABLE IF NOT EXISTS vets (
   first_name TEXT,
   last_name  TEXT
 );
-CREATE INDEX ON vets (last_name);
+CREATE INDEX IF NOT EXISTS vets_last_name ON vets (last_name);
 
 CREATE TABLE IF NOT EXISTS specialties (
   id   INT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
   name TEXT
 );
-CREATE INDEX ON specialties (name);
+CREATE INDEX IF NOT EXISTS specialties_name ON specialties (name);
 
 CREATE TABLE IF NOT EXISTS vet_specialties (
   vet_id       INT NOT NULL REFERENCES vets (id),
@@ -21,7 +21,7 @@ CREATE TABLE IF NOT EXISTS types (
   id   INT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
   name TEXT
 );
-CREATE INDEX ON types (name);
+CREATE INDEX IF NOT EXISTS types_name ON types (name);
 
 CREATE TABLE IF NOT EXISTS owners (
   id         INT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
@@ -31,7 +31,9 @@ CREATE TABLE IF NOT EXISTS owners (
   city       TEXT,
   telephone  TEXT
 );
-CREATE INDEX ON owners (last_name);
+CREATE INDEX IF NOT EXISTS owners_last_name_id ON owners (last_name, id);
+-- serves case insensitive prefix searches on lower(last_name), whatever the collation
+CREATE INDEX IF NOT EXISTS owners_lower_last_name ON owners (lower(last_name) text_pattern_ops);
 
 CREATE TABLE IF NOT EXISTS pets (
   id         INT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
@@ -40,8 +42,8 @@ CREATE TABLE IF NOT EXISTS pets (
   type_id    INT NOT NULL REFERENCES types (id),
   owner_id   INT REFERENCES owners (id)
 );
-CREATE INDEX ON pets (name);
-CREATE INDEX ON pets (owner_id);
+CREATE INDEX IF NOT EXISTS pets_name ON pets (name);
+CREATE INDEX IF NOT EXISTS pets_owner_id ON pets (owner_id);
 
 CREATE TABLE IF NOT EXISTS visits (
   id          INT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
@@ -49,4 +51,28 @@ CREATE TABLE IF NOT EXISTS visits (
   visit_date  DATE,
   description TEXT
 );
-CREATE INDEX ON visits (pet_id);
+CREATE INDEX IF NOT EXISTS visits_pet_id ON visits (pet_id);
+
+-- ids assigned by Hibernate with the sequence-ids profile, above those of the sample data
+CREATE SEQUENCE IF NOT EXISTS vets_seq START WITH 100 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS specialties_seq START WITH 100 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS types_seq START WITH 100 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS owners_seq START WITH 100 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS pets_seq START WITH 100 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS visits_seq START WITH 100 INCREMENT BY 50;
+
+-- the database may already hold rows, so each sequence is moved past the last id: a
+-- sequence value hands out the block of 50 ids ending with it. Conversely, the identities
+-- are moved past the ids the sequences handed out, in case the profile was turned off
+SELECT setval('vets_seq', GREATEST(last_value, (SELECT COALESCE(MAX(id), 0) + 49 FROM vets))) FROM vets_seq;
+SELECT setval('specialties_seq', GREATEST(last_value, (SELECT COALESCE(MAX(id), 0) + 49 FROM specialties))) FROM specialties_seq;
+SELECT setval('types_seq', GREATEST(last_value, (SELECT COALESCE(MAX(id), 0) + 49 FROM types))) FROM types_seq;
+SELECT setval('owners_seq', GREATEST(last_value, (SELECT COALESCE(MAX(id), 0) + 49 FROM owners))) FROM owners_seq;
+SELECT setval('pets_seq', GREATEST(last_value, (SELECT COALESCE(MAX(id), 0) + 49 FROM pets))) FROM pets_seq;
+SELECT setval('visits_seq', GREATEST(last_value, (SELECT COALESCE(MAX(id), 0) + 49 FROM visits))) FROM visits_seq;
+SELECT setval(pg_get_serial_sequence('vets', 'id'), MAX(id)) FROM vets HAVING MAX(id) IS NOT NULL;
+SELECT setval(pg_get_serial_sequence('specialties', 'id'), MAX(id)) FROM specialties HAVING MAX(id) IS NOT NULL;
+SELECT setval(pg_get_serial_sequence('types', 'id'), MAX(id)) FROM types HAVING MAX(id) IS NOT NULL;
+SELECT setval(pg_get_serial_sequence('owners', 'id'), MAX(id)) FROM owners HAVING MAX(id) IS NOT NULL;
+SELECT setval(pg_get_serial_sequence('pets', 'id'), MAX(id)) FROM pets HAVING MAX(id) IS NOT NULL;
+SELECT setval(pg_get_serial_sequence('visits', 'id'), MAX(id)) FROM visits HAVING MAX(id) IS NOT NULL;
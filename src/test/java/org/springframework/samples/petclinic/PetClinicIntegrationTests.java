@@ -26,11 +26,14 @@ import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
 import org.springframework.boot.test.web.server.LocalServerPort;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.RequestEntity;
 import org.springframework.http.ResponseEntity;
 import org.springframework.samples.petclinic.vet.VetRepository;
 import org.springframework.web.client.RestTemplate;
 
+import io.micrometer.core.instrument.MeterRegistry;
+
 @SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT)
 public class PetClinicIntegrationTests {
 
@@ -43,12 +46,33 @@ public class PetClinicIntegrationTests {
 	@Autowired
 	private RestTemplateBuilder builder;
 
+	@Autowired
+	private MeterRegistry meterRegistry;
+
 	@Test
 	void testFindAll() {
 		vets.findAll();
 		vets.findAll(); // served from cache
 	}
 
+	@Test
+	void testCacheMetrics() {
+		vets.findAll();
+		assertThat(meterRegistry.find("cache.gets").tag("cache", "vets").tag("result", "hit").functionCounter())
+			.isNotNull();
+		assertThat(meterRegistry.find("cache.evictions").tag("cache", "vets").functionCounter()).isNotNull();
+	}
+
+	@Test
+	void testSecondLevelCacheMetrics() {
+		assertThat(meterRegistry.find("hibernate.second.level.cache.requests")
+			.tag("region", "vets")
+			.tag("result", "hit")
+			.functionCounter()).isNotNull();
+		assertThat(meterRegistry.find("hibernate.second.level.cache.puts").tag("region", "types").functionCounter())
+			.isNotNull();
+	}
+
 	@Test
 	void testOwnerDetails() {
 		RestTemplate template = builder.rootUri("http://localhost:" + port).build();
@@ -56,6 +80,31 @@ public class PetClinicIntegrationTests {
 		assertThat(result.getStatusCode()).isEqualTo(HttpStatus.OK);
 	}
 
+	@Test
+	void testOwnersList() {
+		RestTemplate template = builder.rootUri("http://localhost:" + port).build();
+		ResponseEntity<String> result = template.exchange(RequestEntity.get("/owners?lastName=").build(), String.class);
+		assertThat(result.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(result.getBody()).contains("Max, Samantha");
+	}
+
+	@Test
+	void testOwnersExport() {
+		RestTemplate template = builder.rootUri("http://localhost:" + port).build();
+		ResponseEntity<String> result = template.exchange(RequestEntity.get("/owners/export.ndjson").build(),
+				String.class);
+		assertThat(result.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(result.getHeaders().getContentType().isCompatibleWith(MediaType.APPLICATION_NDJSON)).isTrue();
+		assertThat(result.getBody().lines()).hasSize(10).first().asString().startsWith("{\"id\":1,");
+
+		result = template.exchange(RequestEntity.get("/owners/export.csv").build(), String.class);
+		assertThat(result.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(result.getHeaders().getContentDisposition().getFilename()).isEqualTo("owners.csv");
+		assertThat(result.getBody().lines()).hasSize(16)
+			.contains("6,Jean,Coleman,105 N. Lake St.,Monona,6085552654,7,"
+					+ "Samantha,2012-09-04,cat,1,2013-01-01,rabies shot");
+	}
+
 	public static void main(String[] args) {
 		SpringApplication.run(PetClinicApplication.class, args);
 	}
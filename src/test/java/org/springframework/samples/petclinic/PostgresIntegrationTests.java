@@ -20,6 +20,9 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
 import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
@@ -36,20 +39,28 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
 import org.springframework.boot.test.web.server.LocalServerPort;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.context.ApplicationListener;
 import org.springframework.core.env.ConfigurableEnvironment;
 import org.springframework.core.env.EnumerablePropertySource;
 import org.springframework.core.env.PropertySource;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.RequestEntity;
 import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.samples.petclinic.owner.OwnerRepository;
+import org.springframework.samples.petclinic.service.RecordingStatementInspector;
 import org.springframework.samples.petclinic.vet.VetRepository;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.web.client.RestTemplate;
 import org.testcontainers.DockerClientFactory;
 
 @SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT, properties = { "spring.docker.compose.skip.in-tests=false", //
-		"spring.docker.compose.start.arguments=--force-recreate,--renew-anon-volumes,postgres" })
+		"spring.docker.compose.start.arguments=--force-recreate,--renew-anon-volumes,postgres",
+		RecordingStatementInspector.PROPERTY })
 @ActiveProfiles("postgres")
 @DisabledInNativeImage
 public class PostgresIntegrationTests {
@@ -60,9 +71,18 @@ public class PostgresIntegrationTests {
 	@Autowired
 	private VetRepository vets;
 
+	@Autowired
+	private OwnerRepository owners;
+
 	@Autowired
 	private RestTemplateBuilder builder;
 
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	@Autowired
+	private CacheManager cacheManager;
+
 	@BeforeAll
 	static void available() {
 		assumeTrue(DockerClientFactory.instance().isDockerAvailable(), "Docker not available");
@@ -91,6 +111,61 @@ public class PostgresIntegrationTests {
 		assertThat(result.getStatusCode()).isEqualTo(HttpStatus.OK);
 	}
 
+	@Test
+	void testFindOwnersIgnoresCase() {
+		RestTemplate template = builder.rootUri("http://localhost:" + port).build();
+		ResponseEntity<String> result = template.exchange(RequestEntity.get("/owners?lastName=dAVIS").build(),
+				String.class);
+		assertThat(result.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(result.getBody()).contains("Betty").contains("Harold");
+	}
+
+	@Test
+	void testCaseInsensitiveLastNamePrefixUsesIndex() {
+		// the SQL Hibernate generates for casefold(o.lastName) LIKE concat(...)
+		owners.findSummariesByLastNameStartingWith("Da", PageRequest.of(0, 5));
+		String sql = RecordingStatementInspector.lastStatement();
+		String plan = jdbc.execute((ConnectionCallback<String>) connection -> {
+			try (Statement statement = connection.createStatement()) {
+				// the sample data is too small for the planner to prefer an index
+				// otherwise, and a full scan of owners_last_name_id would return the
+				// rows in order
+				statement.execute("SET enable_seqscan = off");
+				statement.execute("SET enable_indexscan = off");
+				try (PreparedStatement explain = connection.prepareStatement("EXPLAIN " + sql)) {
+					explain.setString(1, "Da");
+					explain.setInt(2, 6);
+					try (ResultSet rows = explain.executeQuery()) {
+						StringBuilder lines = new StringBuilder();
+						while (rows.next()) {
+							lines.append(rows.getString(1)).append('\n');
+						}
+						return lines.toString();
+					}
+				}
+				finally {
+					statement.execute("RESET enable_indexscan");
+					statement.execute("RESET enable_seqscan");
+				}
+			}
+		});
+		assertThat(plan).contains("owners_lower_last_name");
+	}
+
+	@Test
+	void testCacheEvictionsFromOtherInstances() throws Exception {
+		Cache cache = cacheManager.getCache("vets");
+		vets.findAll();
+		assertThat(cache.get("all")).isNotNull();
+		// another instance evicting the vets
+		jdbc.queryForList("SELECT pg_notify('petclinic_cache', 'other-instance|vets|s:all')");
+		long deadline = System.currentTimeMillis() + 5000;
+		while (cache.get("all") != null && System.currentTimeMillis() < deadline) {
+			Thread.sleep(50);
+		}
+		assertThat(cache.get("all")).isNull();
+	}
+
 	static class PropertiesLogger implements ApplicationListener<ApplicationPreparedEvent> {
 
 		private static final Log log = LogFactory.getLog(PropertiesLogger.class);
@@ -0,0 +1,174 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Consistency tests of the {@link OwnerCache}: whatever the controller saving an owner,
+ * one of its pets or visits, the next request sees the change. The changes are committed,
+ * so the context and its database are discarded afterwards.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles(OwnerCache.PROFILE)
+@DirtiesContext
+class OwnerCacheIntegrationTests {
+
+	private static final int GEORGE = 1;
+
+	private static final int LEO = 1;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private OwnerRepository owners;
+
+	@Autowired
+	private CacheManager cacheManager;
+
+	private Cache cache;
+
+	@BeforeEach
+	void setup() {
+		this.cache = this.cacheManager.getCache(OwnerCache.CACHE_NAME);
+	}
+
+	private Owner showOwner() throws Exception {
+		Owner owner = (Owner) this.mockMvc.perform(get("/owners/{ownerId}", GEORGE))
+			.andExpect(status().isOk())
+			.andReturn()
+			.getModelAndView()
+			.getModel()
+			.get("owner");
+		assertThat(this.cache.get(GEORGE)).isNotNull();
+		return owner;
+	}
+
+	@Test
+	void shouldServeOwnerPageFromCache() throws Exception {
+		Owner first = showOwner();
+		Owner second = showOwner();
+
+		assertThat(second).isNotSameAs(first);
+		assertThat(second.getLastName()).isEqualTo("Franklin");
+		assertThat(second.getPet(LEO)).isNotSameAs(first.getPet(LEO));
+		assertThat(second.getPet(LEO).getName()).isEqualTo("Leo");
+	}
+
+	@Test
+	void shouldEvictUpdatedOwner() throws Exception {
+		showOwner();
+
+		this.mockMvc
+			.perform(post("/owners/{ownerId}/edit", GEORGE).param("firstName", "George")
+				.param("lastName", "Franklin")
+				.param("address", "110 W. Liberty St.")
+				.param("city", "Middleton")
+				.param("telephone", "6085551023"))
+			.andExpect(status().is3xxRedirection());
+
+		assertThat(this.cache.get(GEORGE)).isNull();
+		assertThat(showOwner().getCity()).isEqualTo("Middleton");
+	}
+
+	@Test
+	void shouldKeepOwnerOfInvalidUpdate() throws Exception {
+		String telephone = showOwner().getTelephone();
+
+		this.mockMvc
+			.perform(post("/owners/{ownerId}/edit", GEORGE).param("firstName", "George")
+				.param("lastName", "Franklin")
+				.param("address", "110 W. Liberty St.")
+				.param("city", "Madison")
+				.param("telephone", "invalid"))
+			.andExpect(status().isOk());
+
+		assertThat(showOwner().getTelephone()).isEqualTo(telephone);
+	}
+
+	@Test
+	void shouldEvictOwnerOfNewPet() throws Exception {
+		showOwner();
+
+		this.mockMvc
+			.perform(post("/owners/{ownerId}/pets/new", GEORGE).param("name", "Rex")
+				.param("birthDate", "2020-01-01")
+				.param("type", "dog"))
+			.andExpect(status().is3xxRedirection());
+
+		assertThat(this.cache.get(GEORGE)).isNull();
+		assertThat(showOwner().getPet("Rex")).isNotNull();
+	}
+
+	@Test
+	void shouldEvictOwnerOfUpdatedPet() throws Exception {
+		showOwner();
+
+		this.mockMvc
+			.perform(post("/owners/{ownerId}/pets/{petId}/edit", GEORGE, LEO).param("name", "Leonardo")
+				.param("birthDate", "2010-09-07")
+				.param("type", "cat"))
+			.andExpect(status().is3xxRedirection());
+
+		assertThat(this.cache.get(GEORGE)).isNull();
+		assertThat(showOwner().getPet(LEO).getName()).isEqualTo("Leonardo");
+	}
+
+	@Test
+	void shouldEvictOwnerOfNewVisit() throws Exception {
+		showOwner();
+
+		this.mockMvc
+			.perform(post("/owners/{ownerId}/pets/{petId}/visits/new", GEORGE, LEO).param("date", "2024-01-01")
+				.param("description", "vaccination"))
+			.andExpect(status().is3xxRedirection());
+
+		assertThat(this.cache.get(GEORGE)).isNull();
+		showOwner();
+		assertThat(this.cache.get(GEORGE, Owner.class).getPet(LEO).getVisits()).extracting(Visit::getDescription)
+			.contains("vaccination");
+	}
+
+	@Test
+	void shouldEvictImportedOwners() throws Exception {
+		Owner george = showOwner();
+		george.setCity("Fitchburg");
+
+		this.owners.saveAll(List.of(george));
+
+		assertThat(this.cache.get(GEORGE)).isNull();
+		assertThat(showOwner().getCity()).isEqualTo("Fitchburg");
+	}
+
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+/**
+ * Test class for {@link OwnerCache}
+ */
+class OwnerCacheTests {
+
+	private final OwnerRepository owners = mock(OwnerRepository.class);
+
+	private final CaffeineCacheManager cacheManager = new CaffeineCacheManager(OwnerCache.CACHE_NAME);
+
+	private final OwnerCache cache = new OwnerCache(this.owners, this.cacheManager);
+
+	private static Owner george() {
+		Owner george = new Owner();
+		george.setId(1);
+		george.setFirstName("George");
+		george.setLastName("Franklin");
+		Pet max = new Pet();
+		max.setName("Max");
+		max.setBirthDate(LocalDate.of(2020, 1, 1));
+		george.addPet(max);
+		max.setId(1);
+		return george;
+	}
+
+	@Test
+	void shouldLoadOwnerOnce() {
+		given(this.owners.findById(1)).willReturn(Optional.of(george()));
+
+		assertThat(this.cache.findById(1)).isPresent();
+		assertThat(this.cache.findById(1)).isPresent();
+
+		then(this.owners).should(times(1)).findById(1);
+	}
+
+	@Test
+	void shouldReturnCopies() {
+		given(this.owners.findById(1)).willReturn(Optional.of(george()));
+
+		Owner first = this.cache.findById(1).orElseThrow();
+		first.setLastName("Changed");
+		first.getPet("Max").setName("Changed");
+		Owner second = this.cache.findById(1).orElseThrow();
+
+		assertThat(second).isNotSameAs(first);
+		assertThat(second.getLastName()).isEqualTo("Franklin");
+		assertThat(second.getPet(1).getName()).isEqualTo("Max");
+	}
+
+	@Test
+	void shouldReloadEvictedOwner() {
+		given(this.owners.findById(1)).willReturn(Optional.empty(), Optional.of(george()));
+
+		assertThat(this.cache.findById(1)).isEmpty();
+		this.cache.onOwnerSaved(new OwnerSavedEvent(1));
+
+		assertThat(this.cache.findById(1)).isPresent();
+		then(this.owners).should(times(2)).findById(1);
+	}
+
+	@Test
+	void shouldNotKeepOwnerLoadedBeforeEviction() throws Exception {
+		CountDownLatch loaded = new CountDownLatch(1);
+		CountDownLatch resume = new CountDownLatch(1);
+		given(this.owners.findById(1)).willAnswer(invocation -> {
+			// the owner was read, but the change evicting it commits before it is cached
+			loaded.countDown();
+			resume.await(10, TimeUnit.SECONDS);
+			return Optional.of(george());
+		});
+		Thread reader = new Thread(() -> this.cache.findById(1));
+		reader.start();
+		assertThat(loaded.await(10, TimeUnit.SECONDS)).isTrue();
+
+		Thread writer = new Thread(() -> this.cache.evict(1));
+		writer.start();
+		writer.join(500);
+		// the eviction waits for the load in progress, then removes the loaded owner
+		assertThat(writer.isAlive()).isTrue();
+		resume.countDown();
+		reader.join();
+		writer.join();
+
+		assertThat(this.cacheManager.getCache(OwnerCache.CACHE_NAME).get(1)).isNull();
+	}
+
+}
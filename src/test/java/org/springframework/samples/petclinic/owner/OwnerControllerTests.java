@@ -21,29 +21,52 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.condition.DisabledInNativeImage;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
 import org.springframework.test.context.aot.DisabledInAotMode;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.hasEntry;
 import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.hasProperty;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -55,7 +78,9 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
  * @author Colin But
  * @author Wick Dynex
  */
-@WebMvcTest(OwnerController.class)
+@WebMvcTest(value = OwnerController.class,
+		includeFilters = @ComponentScan.Filter(value = OwnerResolver.class, type = FilterType.ASSIGNABLE_TYPE))
+@Import(SimpleMeterRegistry.class)
 @DisabledInNativeImage
 @DisabledInAotMode
 class OwnerControllerTests {
@@ -68,6 +93,14 @@ class OwnerControllerTests {
 	@MockitoBean
 	private OwnerRepository owners;
 
+	@MockitoBean
+	private VisitRepository visits;
+
+	@MockitoBean
+	private OwnerSearchIndex searchIndex;
+
+	private final ProjectionFactory projections = new SpelAwareProxyProjectionFactory();
+
 	private Owner george() {
 		Owner george = new Owner();
 		george.setId(TEST_OWNER_ID);
@@ -87,19 +120,33 @@ class OwnerControllerTests {
 		return george;
 	}
 
+	private OwnerSummary summary(Owner owner) {
+		Map<String, Object> columns = new HashMap<>();
+		columns.put("id", owner.getId());
+		columns.put("firstName", owner.getFirstName());
+		columns.put("lastName", owner.getLastName());
+		columns.put("address", owner.getAddress());
+		columns.put("city", owner.getCity());
+		columns.put("telephone", owner.getTelephone());
+		columns.put("petNames", owner.getPets().isEmpty() ? null : owner.getPets().get(0).getName());
+		return this.projections.createProjection(OwnerSummary.class, columns);
+	}
+
 	@BeforeEach
 	void setup() {
 
 		Owner george = george();
-		given(this.owners.findByLastNameStartingWith(eq("Franklin"), any(Pageable.class)))
-			.willReturn(new PageImpl<>(List.of(george)));
+		given(this.owners.findSummariesByLastNameStartingWith(eq("Franklin"), any(Pageable.class)))
+			.willReturn(new PageImpl<>(List.of(summary(george))));
 
 		given(this.owners.findAll(any(Pageable.class))).willReturn(new PageImpl<>(List.of(george)));
 
-		given(this.owners.findById(TEST_OWNER_ID)).willReturn(Optional.of(george));
+		given(this.owners.findWithPetsById(TEST_OWNER_ID)).willReturn(Optional.of(george));
 		Visit visit = new Visit();
 		visit.setDate(LocalDate.now());
 		george.getPet("Max").getVisits().add(visit);
+		visit.setPetId(1);
+		given(this.visits.findRecentByPetIds(List.of(1), OwnerController.RECENT_VISITS + 1)).willReturn(List.of(visit));
 
 	}
 
@@ -143,15 +190,31 @@ class OwnerControllerTests {
 
 	@Test
 	void testProcessFindFormSuccess() throws Exception {
-		Page<Owner> tasks = new PageImpl<>(List.of(george(), new Owner()));
-		when(this.owners.findByLastNameStartingWith(anyString(), any(Pageable.class))).thenReturn(tasks);
-		mockMvc.perform(get("/owners?page=1")).andExpect(status().isOk()).andExpect(view().name("owners/ownersList"));
+		Page<OwnerSummary> tasks = new PageImpl<>(List.of(summary(george()), summary(new Owner())));
+		when(this.owners.findSummariesByLastNameStartingWith(anyString(), any(Pageable.class))).thenReturn(tasks);
+		mockMvc.perform(get("/owners?page=1"))
+			.andExpect(status().isOk())
+			.andExpect(model().attribute("listOwners", hasItem(hasProperty("petNames", is("Max")))))
+			.andExpect(view().name("owners/ownersList"));
+	}
+
+	@Test
+	void testProcessFindFormPaginatorUsesCount() throws Exception {
+		Slice<OwnerSummary> tasks = new SliceImpl<>(List.of(summary(george()), summary(george())), PageRequest.of(1, 2),
+				true);
+		when(this.owners.findSummariesByLastNameStartingWith(anyString(), any(Pageable.class))).thenReturn(tasks);
+		when(this.owners.countByLastNameStartingWith("")).thenReturn(12L);
+		mockMvc.perform(get("/owners?page=2"))
+			.andExpect(status().isOk())
+			.andExpect(model().attribute("totalItems", 12L))
+			.andExpect(model().attribute("totalPages", 3))
+			.andExpect(view().name("owners/ownersList"));
 	}
 
 	@Test
 	void testProcessFindFormByLastName() throws Exception {
-		Page<Owner> tasks = new PageImpl<>(List.of(george()));
-		when(this.owners.findByLastNameStartingWith(eq("Franklin"), any(Pageable.class))).thenReturn(tasks);
+		Page<OwnerSummary> tasks = new PageImpl<>(List.of(summary(george())));
+		when(this.owners.findSummariesByLastNameStartingWith(eq("Franklin"), any(Pageable.class))).thenReturn(tasks);
 		mockMvc.perform(get("/owners?page=1").param("lastName", "Franklin"))
 			.andExpect(status().is3xxRedirection())
 			.andExpect(view().name("redirect:/owners/" + TEST_OWNER_ID));
@@ -159,8 +222,9 @@ class OwnerControllerTests {
 
 	@Test
 	void testProcessFindFormNoOwnersFound() throws Exception {
-		Page<Owner> tasks = new PageImpl<>(List.of());
-		when(this.owners.findByLastNameStartingWith(eq("Unknown Surname"), any(Pageable.class))).thenReturn(tasks);
+		Page<OwnerSummary> tasks = new PageImpl<>(List.of());
+		when(this.owners.findSummariesByLastNameStartingWith(eq("Unknown Surname"), any(Pageable.class)))
+			.thenReturn(tasks);
 		mockMvc.perform(get("/owners?page=1").param("lastName", "Unknown Surname"))
 			.andExpect(status().isOk())
 			.andExpect(model().attributeHasFieldErrors("owner", "lastName"))
@@ -169,6 +233,115 @@ class OwnerControllerTests {
 
 	}
 
+	@Test
+	void testProcessFindFormByCursor() throws Exception {
+		List<OwnerSummary> window = new ArrayList<>();
+		for (int i = 1; i <= 6; i++) {
+			Owner owner = george();
+			owner.setId(i);
+			window.add(summary(owner));
+		}
+		when(this.owners.findSummariesByLastNameStartingWithAfter(eq("Franklin"), eq(""), eq(0), any(Limit.class)))
+			.thenReturn(window);
+		mockMvc.perform(get("/owners").param("lastName", "Franklin"))
+			.andExpect(status().isOk())
+			.andExpect(model().attribute("listOwners", hasSize(5)))
+			.andExpect(model().attribute("previousCursor", nullValue()))
+			.andExpect(model().attribute("nextCursor", new OwnerSearchCursor("Franklin", 5).encode()))
+			.andExpect(view().name("owners/ownersList"));
+	}
+
+	@Test
+	void testProcessFindFormBeforeCursor() throws Exception {
+		List<OwnerSummary> window = new ArrayList<>();
+		for (int i = 3; i >= 2; i--) {
+			Owner owner = george();
+			owner.setId(i);
+			window.add(summary(owner));
+		}
+		when(this.owners.findSummariesByLastNameStartingWithBefore(eq("Franklin"), eq("Franklin"), eq(4),
+				any(Limit.class)))
+			.thenReturn(window);
+		mockMvc
+			.perform(get("/owners").param("lastName", "Franklin")
+				.param("before", new OwnerSearchCursor("Franklin", 4).encode()))
+			.andExpect(status().isOk())
+			.andExpect(model().attribute("listOwners", contains(hasProperty("id", is(2)), hasProperty("id", is(3)))))
+			.andExpect(model().attribute("previousCursor", nullValue()))
+			.andExpect(model().attribute("nextCursor", new OwnerSearchCursor("Franklin", 3).encode()))
+			.andExpect(view().name("owners/ownersList"));
+	}
+
+	@Test
+	void testProcessFindFormInvalidCursorStartsOver() throws Exception {
+		List<OwnerSummary> window = new ArrayList<>();
+		for (int i = 1; i <= 6; i++) {
+			Owner owner = george();
+			owner.setId(i);
+			window.add(summary(owner));
+		}
+		when(this.owners.findSummariesByLastNameStartingWithAfter(eq("Franklin"), eq(""), eq(0), any(Limit.class)))
+			.thenReturn(window);
+		// not Base64, and a cursor without its id
+		String withoutId = Base64.getUrlEncoder().encodeToString("Franklin".getBytes(StandardCharsets.UTF_8));
+		for (String cursor : List.of("!!not-base64!!", withoutId)) {
+			for (String direction : List.of("after", "before")) {
+				mockMvc.perform(get("/owners").param("lastName", "Franklin").param(direction, cursor))
+					.andExpect(status().isOk())
+					.andExpect(model().attribute("listOwners", hasSize(5)))
+					.andExpect(model().attribute("previousCursor", nullValue()))
+					.andExpect(model().attribute("nextCursor", new OwnerSearchCursor("Franklin", 5).encode()))
+					.andExpect(view().name("owners/ownersList"));
+			}
+		}
+	}
+
+	@Test
+	void testProcessFindFormSingleOwnerByCursor() throws Exception {
+		when(this.owners.findSummariesByLastNameStartingWithAfter(eq("Franklin"), eq(""), eq(0), any(Limit.class)))
+			.thenReturn(List.of(summary(george())));
+		mockMvc.perform(get("/owners").param("lastName", "Franklin"))
+			.andExpect(status().is3xxRedirection())
+			.andExpect(view().name("redirect:/owners/" + TEST_OWNER_ID));
+	}
+
+	@Test
+	void testProcessSearchFormSuccess() throws Exception {
+		Owner other = george();
+		other.setId(2);
+		when(this.searchIndex.search(eq("frank madison"), anyInt()))
+			.thenReturn(List.of(summary(george()), summary(other)));
+		mockMvc.perform(get("/owners/search").param("q", "frank madison"))
+			.andExpect(status().isOk())
+			.andExpect(model().attribute("listOwners", contains(hasProperty("id", is(1)), hasProperty("id", is(2)))))
+			.andExpect(view().name("owners/ownersList"));
+	}
+
+	@Test
+	void testProcessSearchFormSingleOwner() throws Exception {
+		when(this.searchIndex.search(eq("max"), anyInt())).thenReturn(List.of(summary(george())));
+		mockMvc.perform(get("/owners/search").param("q", "max"))
+			.andExpect(status().is3xxRedirection())
+			.andExpect(view().name("redirect:/owners/" + TEST_OWNER_ID));
+	}
+
+	@Test
+	void testProcessSearchFormNoOwnersFound() throws Exception {
+		when(this.searchIndex.search(eq("nobody"), anyInt())).thenReturn(List.of());
+		mockMvc.perform(get("/owners/search").param("q", "nobody"))
+			.andExpect(status().isOk())
+			.andExpect(model().attribute("query", "nobody"))
+			.andExpect(view().name("owners/findOwners"));
+	}
+
+	@Test
+	void testProcessSearchFormBlankQuery() throws Exception {
+		mockMvc.perform(get("/owners/search").param("q", " "))
+			.andExpect(status().isOk())
+			.andExpect(view().name("owners/findOwners"));
+		then(this.searchIndex).should(never()).search(anyString(), anyInt());
+	}
+
 	@Test
 	void testInitUpdateOwnerForm() throws Exception {
 		mockMvc.perform(get("/owners/{ownerId}/edit", TEST_OWNER_ID))
@@ -225,9 +398,27 @@ class OwnerControllerTests {
 			.andExpect(model().attribute("owner", hasProperty("city", is("Madison"))))
 			.andExpect(model().attribute("owner", hasProperty("telephone", is("6085551023"))))
 			.andExpect(model().attribute("owner", hasProperty("pets", not(empty()))))
-			.andExpect(model().attribute("owner",
-					hasProperty("pets", hasItem(hasProperty("visits", hasSize(greaterThan(0)))))))
+			.andExpect(model().attribute("recentVisits", hasEntry(is(1), hasItem(hasProperty("date", notNullValue())))))
 			.andExpect(view().name("owners/ownerDetails"));
+		then(this.owners).should(never()).findById(TEST_OWNER_ID);
+		then(this.visits).should().findRecentByPetIds(List.of(1), OwnerController.RECENT_VISITS + 1);
+	}
+
+	@Test
+	void testShowOwnerWithOlderVisits() throws Exception {
+		List<Visit> visits = new ArrayList<>();
+		for (int i = 0; i <= OwnerController.RECENT_VISITS; i++) {
+			Visit visit = new Visit();
+			visit.setPetId(1);
+			visit.setDate(LocalDate.now().minusDays(i));
+			visits.add(visit);
+		}
+		given(this.visits.findRecentByPetIds(List.of(1), OwnerController.RECENT_VISITS + 1)).willReturn(visits);
+
+		mockMvc.perform(get("/owners/{ownerId}", TEST_OWNER_ID))
+			.andExpect(status().isOk())
+			.andExpect(model().attribute("recentVisits", hasEntry(is(1), hasProperty("content", hasSize(5)))))
+			.andExpect(model().attribute("recentVisits", hasEntry(is(1), hasProperty("last", is(false)))));
 	}
 
 	@Test
@@ -242,7 +433,7 @@ class OwnerControllerTests {
 		owner.setCity("New York");
 		owner.setTelephone("0123456789");
 
-		when(owners.findById(pathOwnerId)).thenReturn(Optional.of(owner));
+		when(owners.findWithPetsById(pathOwnerId)).thenReturn(Optional.of(owner));
 
 		mockMvc.perform(MockMvcRequestBuilders.post("/owners/{ownerId}/edit", pathOwnerId).flashAttr("owner", owner))
 			.andExpect(status().is3xxRedirection())
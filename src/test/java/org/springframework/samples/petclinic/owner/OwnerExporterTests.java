@@ -0,0 +1,114 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Test class for {@link OwnerExporter}
+ */
+class OwnerExporterTests {
+
+	private final ProjectionFactory projections = new SpelAwareProxyProjectionFactory();
+
+	private final OwnerRepository owners = mock(OwnerRepository.class);
+
+	private final OwnerExporter exporter = new OwnerExporter(this.owners, new ObjectMapper());
+
+	private OwnerExportRow row(int ownerId, String lastName, Integer petId, String petName, Integer visitId,
+			String description) {
+		Map<String, Object> columns = new HashMap<>();
+		columns.put("ownerId", ownerId);
+		columns.put("firstName", "Jean");
+		columns.put("lastName", lastName);
+		columns.put("address", "105 N. Lake St.");
+		columns.put("city", "Monona");
+		columns.put("telephone", "6085552654");
+		columns.put("petId", petId);
+		columns.put("petName", petName);
+		columns.put("birthDate", (petId != null) ? LocalDate.of(2012, 9, 4) : null);
+		columns.put("petType", (petId != null) ? "cat" : null);
+		columns.put("visitId", visitId);
+		columns.put("visitDate", (visitId != null) ? LocalDate.of(2013, 1, visitId) : null);
+		columns.put("description", description);
+		return this.projections.createProjection(OwnerExportRow.class, columns);
+	}
+
+	@BeforeEach
+	void setup() {
+		given(this.owners.streamExportRows())
+			.willAnswer(invocation -> Stream.of(row(6, "Coleman", 7, "Samantha", 1, "rabies shot"),
+					row(6, "Coleman", 7, "Samantha", 4, "spayed"), row(6, "Coleman", 8, "Max", null, null),
+					row(11, "O'Hara, \"Jr\"", null, null, null, null)));
+	}
+
+	@Test
+	void shouldWriteOneJsonOwnerPerLine() throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		assertThat(this.exporter.writeNdjson(out)).isEqualTo(2);
+		String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+		assertThat(lines).hasSize(2);
+		assertThat(lines[0]).isEqualTo("{\"id\":6,\"firstName\":\"Jean\",\"lastName\":\"Coleman\","
+				+ "\"address\":\"105 N. Lake St.\",\"city\":\"Monona\",\"telephone\":\"6085552654\",\"pets\":["
+				+ "{\"id\":7,\"name\":\"Samantha\",\"birthDate\":\"2012-09-04\",\"type\":\"cat\",\"visits\":["
+				+ "{\"id\":1,\"date\":\"2013-01-01\",\"description\":\"rabies shot\"},"
+				+ "{\"id\":4,\"date\":\"2013-01-04\",\"description\":\"spayed\"}]},"
+				+ "{\"id\":8,\"name\":\"Max\",\"birthDate\":\"2012-09-04\",\"type\":\"cat\",\"visits\":[]}]}");
+		assertThat(new ObjectMapper().readTree(lines[1]).get("lastName").asText()).isEqualTo("O'Hara, \"Jr\"");
+		assertThat(new ObjectMapper().readTree(lines[1]).get("pets").isEmpty()).isTrue();
+	}
+
+	@Test
+	void shouldWriteOneCsvLinePerVisit() throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		assertThat(this.exporter.writeCsv(out)).isEqualTo(2);
+		assertThat(out.toString(StandardCharsets.UTF_8).split("\r\n")).containsExactly(
+				String.join(",", OwnerExporter.CSV_COLUMNS),
+				"6,Jean,Coleman,105 N. Lake St.,Monona,6085552654,7,Samantha,2012-09-04,cat,1,2013-01-01,rabies shot",
+				"6,Jean,Coleman,105 N. Lake St.,Monona,6085552654,7,Samantha,2012-09-04,cat,4,2013-01-04,spayed",
+				"6,Jean,Coleman,105 N. Lake St.,Monona,6085552654,8,Max,2012-09-04,cat,,,",
+				"11,Jean,\"O'Hara, \"\"Jr\"\"\",105 N. Lake St.,Monona,6085552654,,,,,,,");
+		assertThat(out.toString(StandardCharsets.UTF_8)).endsWith("\r\n");
+	}
+
+	@Test
+	void shouldWriteEmptyExports() throws Exception {
+		given(this.owners.streamExportRows()).willAnswer(invocation -> Stream.empty());
+		ByteArrayOutputStream ndjson = new ByteArrayOutputStream();
+		assertThat(this.exporter.writeNdjson(ndjson)).isZero();
+		assertThat(ndjson.size()).isZero();
+		ByteArrayOutputStream csv = new ByteArrayOutputStream();
+		assertThat(this.exporter.writeCsv(csv)).isZero();
+		assertThat(csv.toString(StandardCharsets.UTF_8)).startsWith("owner_id,").hasLineCount(1);
+	}
+
+}
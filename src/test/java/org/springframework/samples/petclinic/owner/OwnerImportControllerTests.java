@@ -0,0 +1,76 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import java.io.InputStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledInNativeImage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.aot.DisabledInAotMode;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Test class for {@link OwnerImportController}
+ */
+@WebMvcTest(OwnerImportController.class)
+@DisabledInNativeImage
+@DisabledInAotMode
+class OwnerImportControllerTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@MockitoBean
+	private OwnerImporter importer;
+
+	@Test
+	void testImportCsv() throws Exception {
+		OwnerImportResult result = new OwnerImportResult();
+		result.rejected(3, "owner.lastName: must not be blank");
+		given(this.importer.importCsv(any(InputStream.class))).willReturn(result);
+		mockMvc.perform(post("/owners/import").contentType("text/csv").content("owner_id\n"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.owners").value(0))
+			.andExpect(jsonPath("$.errorCount").value(1))
+			.andExpect(jsonPath("$.errors[0].line").value(3))
+			.andExpect(jsonPath("$.errors[0].message").value("owner.lastName: must not be blank"));
+	}
+
+	@Test
+	void testImportNdjson() throws Exception {
+		given(this.importer.importNdjson(any(InputStream.class))).willReturn(new OwnerImportResult());
+		mockMvc.perform(post("/owners/import").contentType(MediaType.APPLICATION_NDJSON).content("{}\n"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.errors").isEmpty());
+	}
+
+	@Test
+	void testImportUnsupportedFormat() throws Exception {
+		mockMvc.perform(post("/owners/import").contentType(MediaType.APPLICATION_XML).content("<owners/>"))
+			.andExpect(status().isUnsupportedMediaType());
+	}
+
+}
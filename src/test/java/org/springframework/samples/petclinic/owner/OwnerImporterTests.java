@@ -0,0 +1,201 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.annotation.DirtiesContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for {@link OwnerImporter}. The imports are committed, so the context
+ * and its database are discarded afterwards.
+ */
+@SpringBootTest
+@DirtiesContext
+class OwnerImporterTests {
+
+	private static final String HEADER = "owner_id,first_name,last_name,address,city,telephone,"
+			+ "pet_id,pet_name,birth_date,pet_type,visit_id,visit_date,description\n";
+
+	@Autowired
+	private OwnerImporter importer;
+
+	@Autowired
+	private OwnerExporter exporter;
+
+	@Autowired
+	private OwnerRepository owners;
+
+	@BeforeEach
+	void setup() {
+		LocaleContextHolder.setLocale(Locale.ENGLISH);
+	}
+
+	@AfterEach
+	void reset() {
+		LocaleContextHolder.resetLocaleContext();
+	}
+
+	private static InputStream input(String text) {
+		return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+	}
+
+	@Test
+	void shouldImportCsvExport() throws Exception {
+		ByteArrayOutputStream export = new ByteArrayOutputStream();
+		int exported = this.exporter.writeCsv(export);
+		long colemans = this.owners.countByLastNameStartingWith("Coleman");
+		long before = this.owners.count();
+
+		OwnerImportResult result = this.importer.importCsv(new ByteArrayInputStream(export.toByteArray()));
+
+		assertThat(result.getErrors()).isEmpty();
+		assertThat(result.getOwners()).isEqualTo(exported);
+		assertThat(this.owners.count()).isEqualTo(before + exported);
+		// every exported Coleman was imported again, and the cached count evicted
+		assertThat(this.owners.countByLastNameStartingWith("Coleman")).isEqualTo(colemans * 2);
+		Owner imported = this.owners.findByLastNameStartingWith("Coleman", Pageable.unpaged())
+			.stream()
+			.max((first, second) -> first.getId() - second.getId())
+			.flatMap(owner -> this.owners.findById(owner.getId()))
+			.orElseThrow();
+		assertThat(imported.getPet("Samantha").getVisits()).extracting(Visit::getDescription)
+			.containsExactly("rabies shot", "spayed");
+		assertThat(imported.getPet("Max").getType().getName()).isEqualTo("cat");
+	}
+
+	@Test
+	void shouldImportNdjsonExport() throws Exception {
+		ByteArrayOutputStream export = new ByteArrayOutputStream();
+		int exported = this.exporter.writeNdjson(export);
+		long before = this.owners.count();
+
+		OwnerImportResult result = this.importer.importNdjson(new ByteArrayInputStream(export.toByteArray()));
+
+		assertThat(result.getErrors()).isEmpty();
+		assertThat(result.getOwners()).isEqualTo(exported);
+		String lines = export.toString(StandardCharsets.UTF_8);
+		assertThat(result.getPets()).isEqualTo(lines.split("\"visits\"").length - 1);
+		assertThat(result.getVisits()).isEqualTo(lines.split("\"description\"").length - 1);
+		assertThat(this.owners.count()).isEqualTo(before + exported);
+	}
+
+	@Test
+	void shouldReportInvalidCsvLines() throws Exception {
+		long before = this.owners.count();
+		OwnerImportResult result = this.importer.importCsv(input(HEADER //
+				+ "1,Ada,Lovelace,12 St James Sq,London,0123456789,1,Byron,2015-01-01,dog,1,2020-01-01,checkup\n"
+				+ "1,Ada,Lovelace,12 St James Sq,London,0123456789,1,Byron,2015-01-01,dog,2,2020-02-01,\"teeth,\n"
+				+ "cleaned\"\n" //
+				+ "2,Alan,Turing,Bletchley Park,Bletchley,123,,,,,,,\n"
+				+ "3,Grace,Hopper,1 Navy Way,Arlington,0123456789,5,Cobol,2015-01-01,dragon,,,\n"
+				+ "4,Edsger,Dijkstra,Nuenen,Nuenen,0123456789,6,Dot,2999-01-01,cat,,,\n"
+				+ "5,Barbara,Liskov,MIT,Cambridge,0123456789,7,Sub,2015-01-01,cat,,,\n"
+				+ "5,Barbara,Liskov,MIT,Cambridge,0123456789,8,sub,2015-01-01,cat,,,\n"
+				+ "6,Ken,Thompson,Bell Labs,Murray Hill,0123456789,9,Unix,2015-01-01,cat,3,2020-01-01,\n"));
+
+		assertThat(result.getOwners()).isEqualTo(1);
+		assertThat(result.getPets()).isEqualTo(1);
+		assertThat(result.getVisits()).isEqualTo(2);
+		assertThat(this.owners.count()).isEqualTo(before + 1);
+		assertThat(result.getErrors()).extracting(Object::toString)
+			.containsExactly("5: owner.telephone: Telephone must be a 10-digit number", "6: pet.type: invalid type",
+					"6: pet.type: is required", "7: pet.birthDate: invalid date", "9: pet.name: is already in use",
+					"10: visit.description: must not be blank");
+		assertThat(result.getErrorCount()).isEqualTo(6);
+	}
+
+	@Test
+	void shouldReportCsvPetsWithoutIdOrName() throws Exception {
+		OwnerImportResult result = this.importer.importCsv(input("""
+				owner_id,first_name,last_name,address,city,telephone,birth_date,type
+				1,Ada,Lovelace,12 St James Sq,London,0123456789,2015-01-01,dog
+				1,Ada,Lovelace,12 St James Sq,London,0123456789,2016-01-01,cat
+				2,Alan,Turing,Bletchley Park,Bletchley,0123456789,,
+				"""));
+
+		assertThat(result.getOwners()).isEqualTo(1);
+		assertThat(result.getPets()).isZero();
+		assertThat(result.getErrors()).extracting(Object::toString)
+			.containsExactly("2: A pet needs a pet_id or a pet_name", "3: A pet needs a pet_id or a pet_name");
+	}
+
+	@Test
+	void shouldReportInvalidNdjsonLines() throws Exception {
+		OwnerImportResult result = this.importer.importNdjson(
+				input("""
+						{"firstName":"Ada","lastName":"Lovelace","address":"12 St James Sq","city":"London","telephone":"0123456789","pets":[]}
+						{"firstName":"Alan",
+						{"firstName":"Grace","address":"1 Navy Way","city":"Arlington","telephone":"0123456789"}
+
+						{"firstName":"Ken","lastName":"Thompson","address":"Bell Labs","city":"Murray Hill","telephone":"0123456789","pets":[{"name":"Unix","type":"cat"}]}
+						"""));
+
+		assertThat(result.getOwners()).isEqualTo(1);
+		assertThat(result.getErrors()).extracting(OwnerImportResult.RowError::getLine).containsExactly(2, 3, 5);
+		assertThat(result.getErrors().get(0).getMessage()).startsWith("Invalid JSON");
+		assertThat(result.getErrors().get(1).getMessage()).isEqualTo("owner.lastName: must not be blank");
+		assertThat(result.getErrors().get(2).getMessage()).isEqualTo("pet.birthDate: is required");
+	}
+
+	@Test
+	void shouldSaveOwnersOneByOneWhenABatchFails() throws Exception {
+		long before = this.owners.count();
+		String tooLong = "x".repeat(300);
+		OwnerImportResult result = this.importer.importCsv(input(HEADER //
+				+ "1,Ada,Lovelace,12 St James Sq,London,0123456789,1,Byron,2015-01-01,dog,1,2020-01-01,checkup\n"
+				+ "2,Alan,Turing," + tooLong + ",Bletchley,0123456789,2,Enigma,2015-01-01,cat,,,\n"
+				+ "3,Grace,Hopper,1 Navy Way,Arlington,0123456789,,,,,,,\n"));
+
+		assertThat(result.getOwners()).isEqualTo(2);
+		assertThat(result.getVisits()).isEqualTo(1);
+		assertThat(result.getErrors()).extracting(OwnerImportResult.RowError::getLine).containsExactly(3);
+		assertThat(this.owners.count()).isEqualTo(before + 2);
+	}
+
+	@Test
+	void shouldImportInSeveralTransactions() throws Exception {
+		StringBuilder ndjson = new StringBuilder();
+		int count = OwnerImporter.BATCH_SIZE * 2 + 1;
+		for (int i = 0; i < count; i++) {
+			ndjson.append("{\"firstName\":\"Bulk\",\"lastName\":\"Owner")
+				.append(i)
+				.append("\",\"address\":\"1 Main St\",\"city\":\"Madison\",\"telephone\":\"0123456789\",")
+				.append("\"pets\":[{\"name\":\"Pet\",\"birthDate\":\"2020-01-01\",\"type\":\"dog\",")
+				.append("\"visits\":[{\"date\":\"2021-01-01\",\"description\":\"checkup\"}]}]}\n");
+		}
+		OwnerImportResult result = this.importer.importNdjson(input(ndjson.toString()));
+
+		assertThat(result.getErrors()).isEmpty();
+		assertThat(result.getOwners()).isEqualTo(count);
+		assertThat(result.getVisits()).isEqualTo(count);
+		assertThat(this.owners.countByLastNameStartingWith("Owner")).isEqualTo(count);
+	}
+
+}
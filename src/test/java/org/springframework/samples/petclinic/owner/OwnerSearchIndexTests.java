@@ -0,0 +1,215 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+
+/**
+ * Test class for {@link OwnerSearchIndex}
+ */
+class OwnerSearchIndexTests {
+
+	private final ProjectionFactory projections = new SpelAwareProxyProjectionFactory();
+
+	private final OwnerRepository owners = mock(OwnerRepository.class);
+
+	private OwnerSearchIndex index;
+
+	private OwnerSummary summary(int id, String firstName, String lastName, String city, String telephone,
+			String petNames) {
+		Map<String, Object> columns = new HashMap<>();
+		columns.put("id", id);
+		columns.put("firstName", firstName);
+		columns.put("lastName", lastName);
+		columns.put("address", id + " Main St.");
+		columns.put("city", city);
+		columns.put("telephone", telephone);
+		columns.put("petNames", petNames);
+		return this.projections.createProjection(OwnerSummary.class, columns);
+	}
+
+	@BeforeEach
+	void setup() {
+		given(this.owners.findSummariesByLastNameStartingWithAfter(eq(""), eq(""), eq(0), any(Limit.class)))
+			.willReturn(List.of(summary(1, "George", "Franklin", "Madison", "6085551023", "Leo"),
+					summary(2, "Betty", "Davis", "Sun Prairie", "6085551749", "Basil"),
+					summary(4, "Harold", "Davis", "Windsor", "6085553198", "Iggy"),
+					summary(6, "Jean", "Coleman", "Monona", "6085552654", "Max, Samantha"),
+					summary(10, "Carlos", "Estaban", "Waunakee", "6085555487", "Lucky, Sly"),
+					summary(11, "Madison", "Davison", "Middleton", "6085550000", null)));
+		this.index = new OwnerSearchIndex(this.owners, Runnable::run);
+		assertThat(this.index.rebuild()).isEqualTo(6);
+	}
+
+	@AfterEach
+	void close() throws Exception {
+		this.index.destroy();
+	}
+
+	private List<Integer> search(String text) {
+		return this.index.search(text, 10).stream().map(OwnerSummary::getId).toList();
+	}
+
+	@Test
+	void shouldFindOwnersByAnyNamePart() {
+		assertThat(search("franklin")).containsExactly(1);
+		assertThat(search("Harold")).containsExactly(4);
+		assertThat(search("prairie")).containsExactly(2);
+	}
+
+	@Test
+	void shouldFindOwnersByPetName() {
+		assertThat(search("samantha")).containsExactly(6);
+		assertThat(search("sly")).containsExactly(10);
+	}
+
+	@Test
+	void shouldFindOwnersByTelephonePrefix() {
+		assertThat(search("60855531")).containsExactly(4);
+	}
+
+	@Test
+	void shouldTolerateTypos() {
+		assertThat(search("Franklyn")).containsExactly(1);
+		assertThat(search("Colemann")).containsExactly(6);
+	}
+
+	@Test
+	void shouldRankBestMatchesFirst() {
+		// both Davis owners match exactly, Davison only by prefix
+		assertThat(search("davis")).hasSize(3).endsWith(11);
+		// the pet name narrows down to a single Davis
+		assertThat(search("davis iggy")).first().isEqualTo(4);
+		// a last name match outranks a city match
+		assertThat(search("madison")).containsExactly(11, 1);
+	}
+
+	@Test
+	void shouldReturnStoredFields() {
+		OwnerSummary owner = this.index.search("coleman", 1).get(0);
+		assertThat(owner.getId()).isEqualTo(6);
+		assertThat(owner.getFirstName()).isEqualTo("Jean");
+		assertThat(owner.getLastName()).isEqualTo("Coleman");
+		assertThat(owner.getAddress()).isEqualTo("6 Main St.");
+		assertThat(owner.getCity()).isEqualTo("Monona");
+		assertThat(owner.getTelephone()).isEqualTo("6085552654");
+		assertThat(owner.getPetNames()).isEqualTo("Max, Samantha");
+	}
+
+	@Test
+	void shouldIgnoreBlankSearches() {
+		assertThat(search("  ")).isEmpty();
+		assertThat(search(null)).isEmpty();
+	}
+
+	@Test
+	void shouldUpdateSavedOwners() {
+		given(this.owners.findSummariesByIdIn(Set.of(1)))
+			.willReturn(List.of(summary(1, "George", "Franklin", "Madison", "6085551023", "Leo, Rex")));
+		this.index.onOwnerSaved(new OwnerSavedEvent(1));
+		assertThat(search("rex")).containsExactly(1);
+		assertThat(search("franklin")).containsExactly(1);
+
+		given(this.owners.findSummariesByIdIn(Set.of(12)))
+			.willReturn(List.of(summary(12, "Ada", "Lovelace", "London", "4420000000", null)));
+		this.index.onOwnerSaved(new OwnerSavedEvent(12));
+		assertThat(search("lovelace")).containsExactly(12);
+	}
+
+	@Test
+	void shouldRemoveOwnersThatNoLongerExist() {
+		given(this.owners.findSummariesByIdIn(Set.of(1))).willReturn(List.of());
+		this.index.onOwnerSaved(new OwnerSavedEvent(1));
+		assertThat(search("franklin")).isEmpty();
+	}
+
+	@Test
+	void shouldUpdateTheOwnersSavedByATransactionOnceCommitted() {
+		given(this.owners.findSummariesByIdIn(any()))
+			.willReturn(List.of(summary(1, "George", "Franklin", "Madison", "6085551023", "Leo, Rex"),
+					summary(12, "Ada", "Lovelace", "London", "4420000000", null)));
+		TransactionSynchronizationManager.initSynchronization();
+		TransactionSynchronizationManager.setActualTransactionActive(true);
+		try {
+			this.index.onOwnerSaved(new OwnerSavedEvent(1));
+			this.index.onOwnerSaved(new OwnerSavedEvent(12));
+			this.index.onOwnerSaved(new OwnerSavedEvent(1));
+			assertThat(search("rex")).isEmpty();
+
+			TransactionSynchronizationUtils.triggerAfterCommit();
+			TransactionSynchronizationUtils.triggerAfterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+		}
+		finally {
+			TransactionSynchronizationManager.clear();
+		}
+		assertThat(search("rex")).containsExactly(1);
+		assertThat(search("lovelace")).containsExactly(12);
+		then(this.owners).should().findSummariesByIdIn(Set.of(1, 12));
+		assertThat(TransactionSynchronizationManager.getResourceMap()).isEmpty();
+	}
+
+	@Test
+	void shouldNotUpdateTheOwnersSavedByARolledBackTransaction() {
+		TransactionSynchronizationManager.initSynchronization();
+		TransactionSynchronizationManager.setActualTransactionActive(true);
+		try {
+			this.index.onOwnerSaved(new OwnerSavedEvent(1));
+			TransactionSynchronizationUtils.triggerAfterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+		}
+		finally {
+			TransactionSynchronizationManager.clear();
+		}
+		then(this.owners).should(never()).findSummariesByIdIn(any());
+		assertThat(TransactionSynchronizationManager.getResourceMap()).isEmpty();
+	}
+
+	@Test
+	void shouldKeepTheOwnersSavedDuringARebuild() {
+		given(this.owners.findSummariesByIdIn(Set.of(1)))
+			.willReturn(List.of(summary(1, "George", "Franklin", "Madison", "6085551023", "Leo, Rex")));
+		given(this.owners.findSummariesByLastNameStartingWithAfter(eq(""), eq(""), eq(0), any(Limit.class)))
+			.willAnswer((invocation) -> {
+				// the owner is saved after the batch was read, but before it is indexed
+				List<OwnerSummary> batch = List.of(summary(1, "George", "Franklin", "Madison", "6085551023", "Leo"));
+				this.index.onOwnerSaved(new OwnerSavedEvent(1));
+				return batch;
+			});
+		assertThat(this.index.rebuild()).isEqualTo(1);
+		assertThat(search("rex")).containsExactly(1);
+	}
+
+}
@@ -22,17 +22,26 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.condition.DisabledInNativeImage;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Import;
 import org.springframework.test.context.aot.DisabledInAotMode;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.model;
@@ -46,7 +55,10 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
  * @author Wick Dynex
  */
 @WebMvcTest(value = PetController.class,
-		includeFilters = @ComponentScan.Filter(value = PetTypeFormatter.class, type = FilterType.ASSIGNABLE_TYPE))
+		includeFilters = @ComponentScan.Filter(
+				value = { PetTypeFormatter.class, PetTypeRegistry.class, OwnerResolver.class },
+				type = FilterType.ASSIGNABLE_TYPE))
+@Import({ SimpleMeterRegistry.class, ConcurrentMapCacheManager.class })
 @DisabledInNativeImage
 @DisabledInAotMode
 class PetControllerTests {
@@ -61,6 +73,9 @@ class PetControllerTests {
 	@MockitoBean
 	private OwnerRepository owners;
 
+	@Autowired
+	private MeterRegistry meterRegistry;
+
 	@BeforeEach
 	void setup() {
 		PetType cat = new PetType();
@@ -77,7 +92,7 @@ class PetControllerTests {
 		dog.setId(TEST_PET_ID + 1);
 		pet.setName("petty");
 		dog.setName("doggy");
-		given(this.owners.findById(TEST_OWNER_ID)).willReturn(Optional.of(owner));
+		given(this.owners.findWithPetsById(TEST_OWNER_ID)).willReturn(Optional.of(owner));
 	}
 
 	@Test
@@ -176,9 +191,33 @@ class PetControllerTests {
 			.andExpect(view().name("redirect:/owners/{ownerId}"));
 	}
 
+	@Test
+	void testProcessUpdateFormLoadsOwnerOnce() throws Exception {
+		double avoided = this.meterRegistry.counter(OwnerResolver.AVOIDED_LOADS_METRIC).count();
+		mockMvc
+			.perform(post("/owners/{ownerId}/pets/{petId}/edit", TEST_OWNER_ID, TEST_PET_ID).param("name", "Betty")
+				.param("type", "hamster")
+				.param("birthDate", "2015-02-12"))
+			.andExpect(status().is3xxRedirection());
+		verify(this.owners, times(1)).findWithPetsById(TEST_OWNER_ID);
+		verify(this.owners, never()).findById(TEST_OWNER_ID);
+		assertThat(this.meterRegistry.counter(OwnerResolver.AVOIDED_LOADS_METRIC).count()).isEqualTo(avoided + 1);
+	}
+
 	@Nested
 	class ProcessUpdateFormHasErrors {
 
+		@Test
+		void testProcessUpdateFormWithDuplicateName() throws Exception {
+			mockMvc
+				.perform(post("/owners/{ownerId}/pets/{petId}/edit", TEST_OWNER_ID, TEST_PET_ID + 1)
+					.param("name", "petty")
+					.param("birthDate", "2015-02-12"))
+				.andExpect(model().attributeHasErrors("pet"))
+				.andExpect(model().attributeHasFieldErrorCode("pet", "name", "duplicate"))
+				.andExpect(view().name("pets/createOrUpdatePetForm"));
+		}
+
 		@Test
 		void testProcessUpdateFormWithInvalidBirthDate() throws Exception {
 			mockMvc
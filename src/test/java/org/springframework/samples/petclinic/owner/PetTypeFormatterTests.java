@@ -18,6 +18,8 @@ package org.springframework.samples.petclinic.owner;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 import java.text.ParseException;
 import java.util.ArrayList;
@@ -32,6 +34,7 @@ import org.junit.jupiter.api.condition.DisabledInNativeImage;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 
 /**
  * Test class for {@link PetTypeFormatter}
@@ -49,7 +52,7 @@ class PetTypeFormatterTests {
 
 	@BeforeEach
 	void setup() {
-		this.petTypeFormatter = new PetTypeFormatter(pets);
+		this.petTypeFormatter = new PetTypeFormatter(new PetTypeRegistry(pets, new ConcurrentMapCacheManager()));
 	}
 
 	@Test
@@ -75,6 +78,15 @@ class PetTypeFormatterTests {
 		});
 	}
 
+	@Test
+	void shouldParseFromCachedPetTypes() throws ParseException {
+		given(this.pets.findPetTypes()).willReturn(makePetTypes());
+		petTypeFormatter.parse("Bird", Locale.ENGLISH);
+		PetType petType = petTypeFormatter.parse("Dog", Locale.ENGLISH);
+		assertThat(petType.getName()).isEqualTo("Dog");
+		verify(this.pets, times(1)).findPetTypes();
+	}
+
 	/**
 	 * Helper method to produce some sample pet types just for test purpose
 	 * @return {@link Collection} of {@link PetType}
@@ -16,7 +16,13 @@
 
 package org.springframework.samples.petclinic.owner;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.hamcrest.Matchers.contains;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.never;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.model;
@@ -26,12 +32,22 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.condition.DisabledInNativeImage;
+import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.test.context.aot.DisabledInAotMode;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletException;
+
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -40,7 +56,9 @@ import java.util.Optional;
  * @author Colin But
  * @author Wick Dynex
  */
-@WebMvcTest(VisitController.class)
+@WebMvcTest(value = VisitController.class,
+		includeFilters = @ComponentScan.Filter(value = OwnerResolver.class, type = FilterType.ASSIGNABLE_TYPE))
+@Import(SimpleMeterRegistry.class)
 @DisabledInNativeImage
 @DisabledInAotMode
 class VisitControllerTests {
@@ -55,6 +73,9 @@ class VisitControllerTests {
 	@MockitoBean
 	private OwnerRepository owners;
 
+	@MockitoBean
+	private VisitRepository visits;
+
 	@BeforeEach
 	void init() {
 		Owner owner = new Owner();
@@ -62,6 +83,22 @@ class VisitControllerTests {
 		owner.addPet(pet);
 		pet.setId(TEST_PET_ID);
 		given(this.owners.findById(TEST_OWNER_ID)).willReturn(Optional.of(owner));
+		given(this.owners.findWithPetsById(TEST_OWNER_ID)).willReturn(Optional.of(owner));
+	}
+
+	@Test
+	void testShowVisitList() throws Exception {
+		Visit visit = new Visit();
+		visit.setDescription("rabies shot");
+		given(this.visits.findByPetIdOrderByDateDescIdDesc(TEST_PET_ID, PageRequest.of(1, 10)))
+			.willReturn(new SliceImpl<>(List.of(visit), PageRequest.of(1, 10), true));
+
+		mockMvc.perform(get("/owners/{ownerId}/pets/{petId}/visits", TEST_OWNER_ID, TEST_PET_ID).param("page", "2"))
+			.andExpect(status().isOk())
+			.andExpect(model().attribute("visits", contains(visit)))
+			.andExpect(model().attribute("currentPage", 2))
+			.andExpect(view().name("pets/visitList"));
+		then(this.owners).should(never()).findById(TEST_OWNER_ID);
 	}
 
 	@Test
@@ -73,12 +110,29 @@ class VisitControllerTests {
 
 	@Test
 	void testProcessNewVisitFormSuccess() throws Exception {
+		given(this.visits.existsPetOfOwner(TEST_OWNER_ID, TEST_PET_ID)).willReturn(true);
 		mockMvc
 			.perform(post("/owners/{ownerId}/pets/{petId}/visits/new", TEST_OWNER_ID, TEST_PET_ID)
 				.param("name", "George")
 				.param("description", "Visit Description"))
 			.andExpect(status().is3xxRedirection())
 			.andExpect(view().name("redirect:/owners/{ownerId}"));
+
+		ArgumentCaptor<Visit> visit = ArgumentCaptor.forClass(Visit.class);
+		then(this.visits).should().save(visit.capture());
+		assertThat(visit.getValue().getPetId()).isEqualTo(TEST_PET_ID);
+		assertThat(visit.getValue().getDescription()).isEqualTo("Visit Description");
+		// the owner aggregate is not loaded to book a visit
+		then(this.owners).shouldHaveNoInteractions();
+	}
+
+	@Test
+	void testProcessNewVisitFormForPetOfOtherOwner() {
+		assertThatExceptionOfType(ServletException.class)
+			.isThrownBy(() -> mockMvc.perform(post("/owners/{ownerId}/pets/{petId}/visits/new", TEST_OWNER_ID, 2)
+				.param("description", "Visit Description")))
+			.withRootCauseInstanceOf(IllegalArgumentException.class);
+		then(this.visits).should(never()).save(any());
 	}
 
 	@Test
@@ -17,23 +17,35 @@
 package org.springframework.samples.petclinic.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 
 import java.time.LocalDate;
 import java.util.Collection;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.hibernate.Hibernate;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.samples.petclinic.owner.Owner;
+import org.springframework.samples.petclinic.owner.OwnerExportRow;
 import org.springframework.samples.petclinic.owner.OwnerRepository;
+import org.springframework.samples.petclinic.owner.OwnerSummary;
 import org.springframework.samples.petclinic.owner.Pet;
 import org.springframework.samples.petclinic.owner.PetType;
 import org.springframework.samples.petclinic.owner.Visit;
+import org.springframework.samples.petclinic.owner.VisitRepository;
 import org.springframework.samples.petclinic.vet.Vet;
 import org.springframework.samples.petclinic.vet.VetRepository;
 import org.springframework.transaction.annotation.Transactional;
@@ -78,6 +90,9 @@ class ClinicServiceTests {
 	@Autowired
 	protected VetRepository vets;
 
+	@Autowired
+	protected VisitRepository visits;
+
 	Pageable pageable;
 
 	@Test
@@ -89,6 +104,81 @@ class ClinicServiceTests {
 		assertThat(owners).isEmpty();
 	}
 
+	@Test
+	void shouldFindOwnersByLastNameIgnoringCase() {
+		assertThat(this.owners.findByLastNameStartingWith("dAVIS", pageable)).hasSize(2);
+		assertThat(this.owners.countByLastNameStartingWith("davis")).isEqualTo(2);
+		assertThat(this.owners.findSummariesByLastNameStartingWith("davis", Pageable.unpaged())).hasSize(2);
+		assertThat(this.owners.findSummariesByLastNameStartingWithAfter("DAV", "", 0, Limit.of(3)))
+			.extracting(OwnerSummary::getLastName)
+			.containsExactly("Davis", "Davis");
+	}
+
+	@Test
+	void shouldFindOwnersByLastNameWithoutLoadingPets() {
+		Page<Owner> owners = this.owners.findByLastNameStartingWith("Davis", pageable);
+		assertThat(owners).isNotEmpty().noneMatch(owner -> Hibernate.isInitialized(owner.getPets()));
+	}
+
+	@Test
+	void shouldFindOwnerSummariesByLastName() {
+		Slice<OwnerSummary> owners = this.owners.findSummariesByLastNameStartingWith("Davis", PageRequest.of(0, 1));
+		assertThat(owners.getNumberOfElements()).isEqualTo(1);
+		assertThat(owners.hasNext()).isTrue();
+
+		owners = this.owners.findSummariesByLastNameStartingWith("Davis", Pageable.unpaged());
+		assertThat(owners).extracting(OwnerSummary::getPetNames).containsExactlyInAnyOrder("Basil", "Iggy");
+
+		owners = this.owners.findSummariesByLastNameStartingWith("Daviss", Pageable.unpaged());
+		assertThat(owners).isEmpty();
+	}
+
+	@Test
+	void shouldPageOwnerSummariesInLastNameAndIdOrder() {
+		List<Integer> paged = new ArrayList<>();
+		Slice<OwnerSummary> page = this.owners.findSummariesByLastNameStartingWith("", PageRequest.of(0, 3));
+		page.forEach(owner -> paged.add(owner.getId()));
+		while (page.hasNext()) {
+			page = this.owners.findSummariesByLastNameStartingWith("", page.nextPageable());
+			page.forEach(owner -> paged.add(owner.getId()));
+		}
+		List<Integer> seeked = this.owners.findSummariesByLastNameStartingWithAfter("", "", 0, Limit.of(100))
+			.stream()
+			.map(OwnerSummary::getId)
+			.toList();
+		assertThat(paged).isEqualTo(seeked);
+	}
+
+	@Test
+	void shouldCountOwnersByLastName() {
+		assertThat(this.owners.countByLastNameStartingWith("Davis")).isEqualTo(2);
+		assertThat(this.owners.countByLastNameStartingWith("Daviss")).isZero();
+	}
+
+	@Test
+	void shouldSeekOwnerSummariesByLastName() {
+		List<OwnerSummary> first = this.owners.findSummariesByLastNameStartingWithAfter("", "", 0, Limit.of(3));
+		assertThat(first).extracting(OwnerSummary::getLastName).containsExactly("Black", "Coleman", "Davis");
+
+		OwnerSummary last = first.get(2);
+		List<OwnerSummary> next = this.owners.findSummariesByLastNameStartingWithAfter("", last.getLastName(),
+				last.getId(), Limit.of(3));
+		assertThat(next).extracting(OwnerSummary::getLastName).containsExactly("Davis", "Escobito", "Estaban");
+
+		OwnerSummary firstOfNext = next.get(0);
+		List<OwnerSummary> previous = this.owners.findSummariesByLastNameStartingWithBefore("",
+				firstOfNext.getLastName(), firstOfNext.getId(), Limit.of(3));
+		assertThat(previous).extracting(OwnerSummary::getId)
+			.containsExactly(first.get(2).getId(), first.get(1).getId(), first.get(0).getId());
+	}
+
+	@Test
+	void shouldFindSingleOwnerWithPetsAndVisits() {
+		Owner owner = this.owners.findById(6).orElseThrow();
+		assertThat(Hibernate.isInitialized(owner.getPets())).isTrue();
+		assertThat(owner.getPets()).allMatch(pet -> Hibernate.isInitialized(pet.getVisits()));
+	}
+
 	@Test
 	void shouldFindSingleOwnerWithPet() {
 		Optional<Owner> optionalOwner = this.owners.findById(1);
@@ -138,6 +228,27 @@ class ClinicServiceTests {
 		assertThat(owner.getLastName()).isEqualTo(newLastName);
 	}
 
+	@Test
+	void shouldStreamOwnersWithPetsAndVisitsForExport() {
+		List<OwnerExportRow> rows;
+		try (Stream<OwnerExportRow> stream = this.owners.streamExportRows()) {
+			rows = stream.toList();
+		}
+		// one row per visit, or per pet without visits: 13 pets, two of which have 2
+		// visits
+		assertThat(rows).hasSize(15);
+		assertThat(rows).extracting(OwnerExportRow::getOwnerId).isSorted();
+		assertThat(rows.stream().map(OwnerExportRow::getOwnerId).distinct()).hasSize(10);
+		assertThat(rows).filteredOn(row -> Integer.valueOf(7).equals(row.getPetId()))
+			.extracting(OwnerExportRow::getVisitId, OwnerExportRow::getVisitDate)
+			.containsExactly(tuple(1, LocalDate.of(2013, 1, 1)), tuple(4, LocalDate.of(2013, 1, 4)));
+		OwnerExportRow leo = rows.get(0);
+		assertThat(leo.getLastName()).isEqualTo("Franklin");
+		assertThat(leo.getPetName()).isEqualTo("Leo");
+		assertThat(leo.getPetType()).isEqualTo("cat");
+		assertThat(leo.getVisitId()).isNull();
+	}
+
 	@Test
 	void shouldFindAllPetTypes() {
 		Collection<PetType> petTypes = this.owners.findPetTypes();
@@ -208,6 +319,14 @@ class ClinicServiceTests {
 		assertThat(vet.getSpecialties().get(1).getName()).isEqualTo("surgery");
 	}
 
+	@Test
+	void shouldFindVetsWithSpecialties() {
+		List<Vet> vets = this.vets.findAllWithSpecialties();
+
+		assertThat(vets).extracting(Vet::getId).containsExactly(1, 2, 3, 4, 5, 6);
+		assertThat(EntityUtils.getById(vets, Vet.class, 3).getNrOfSpecialties()).isEqualTo(2);
+	}
+
 	@Test
 	@Transactional
 	void shouldAddNewVisitForPet() {
@@ -228,6 +347,50 @@ class ClinicServiceTests {
 			.allMatch(value -> value.getId() != null);
 	}
 
+	@Test
+	@Transactional
+	void shouldBookVisitForPet() {
+		assertThat(this.visits.existsPetOfOwner(6, 7)).isTrue();
+		assertThat(this.visits.existsPetOfOwner(1, 7)).isFalse();
+
+		Visit visit = new Visit();
+		visit.setDescription("test");
+		visit.setPetId(7);
+		this.visits.save(visit);
+		assertThat(visit.getId()).isNotNull();
+
+		Owner owner6 = this.owners.findById(6).orElseThrow();
+		assertThat(owner6.getPet(7).getVisits()).hasSize(3).extracting(Visit::getId).contains(visit.getId());
+	}
+
+	@Test
+	void shouldFindOwnerWithPetsButWithoutVisits() {
+		Owner owner = this.owners.findWithPetsById(6).orElseThrow();
+		assertThat(owner.getPets()).isNotEmpty()
+			.allMatch(pet -> Hibernate.isInitialized(pet.getType()) && !Hibernate.isInitialized(pet.getVisits()));
+	}
+
+	@Test
+	void shouldPageVisitsByPetIdMostRecentFirst() {
+		Slice<Visit> visits = this.visits.findByPetIdOrderByDateDescIdDesc(7, PageRequest.of(0, 1));
+		assertThat(visits.getContent()).extracting(Visit::getId).containsExactly(4);
+		assertThat(visits.hasNext()).isTrue();
+
+		visits = this.visits.findByPetIdOrderByDateDescIdDesc(7, visits.nextPageable());
+		assertThat(visits.getContent()).extracting(Visit::getId).containsExactly(1);
+		assertThat(visits.getContent().get(0).getPetId()).isEqualTo(7);
+		assertThat(visits.hasNext()).isFalse();
+	}
+
+	@Test
+	void shouldFindRecentVisitsOfPetsInOneQuery() {
+		List<Visit> visits = this.visits.findRecentByPetIds(List.of(7, 8), 1);
+		assertThat(visits).extracting(Visit::getId).containsExactly(4, 3);
+
+		visits = this.visits.findRecentByPetIds(List.of(7, 8), 2);
+		assertThat(visits).extracting(Visit::getId).containsExactly(4, 1, 3, 2);
+	}
+
 	@Test
 	void shouldFindVisitsByPetId() {
 		Optional<Owner> optionalOwner = this.owners.findById(6);
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.samples.petclinic.owner.OwnerRepository;
+import org.springframework.samples.petclinic.owner.VisitRepository;
+
+/**
+ * Checks that the H2 query plans of the hot queries of the repositories use the indexes
+ * of <code>db/h2/schema.sql</code>. The plans are the ones of the SQL Hibernate generates
+ * for the repository methods, as recorded by a {@link RecordingStatementInspector}.
+ */
+@DataJpaTest(properties = RecordingStatementInspector.PROPERTY)
+class QueryPlanTests {
+
+	@Autowired
+	private OwnerRepository owners;
+
+	@Autowired
+	private VisitRepository visits;
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	@BeforeEach
+	void setup() {
+		RecordingStatementInspector.clear();
+	}
+
+	@Test
+	void ownerSearchStartsIndexRangeAtCursor() {
+		// a deep page, after Harold Davis
+		this.owners.findSummariesByLastNameStartingWithAfter("Da", "Davis", 4, Limit.of(6));
+		Object[] parameters = { "Da", "Davis", "Davis", 4, 6 };
+
+		assertThat(cursorBound(plan(parameters), ">=", parameters)).isEqualTo("Davis");
+	}
+
+	@Test
+	void ownerSearchEndsIndexRangeAtCursor() {
+		this.owners.findSummariesByLastNameStartingWithBefore("Da", "Davis", 4, Limit.of(6));
+		Object[] parameters = { "Da", "Davis", "Davis", 4, 6 };
+
+		assertThat(cursorBound(plan(parameters), "<=", parameters)).isEqualTo("Davis");
+	}
+
+	@Test
+	void petsOfOwnerAreLookedUpByOwnerId() {
+		// the pets of Owner.PETS_GRAPH
+		this.owners.findWithPetsById(6);
+
+		assertThat(plan(6)).contains("PUBLIC.PETS_OWNER_ID: OWNER_ID = O1_0.ID");
+	}
+
+	@Test
+	void visitsOfPetAreLookedUpByPetId() {
+		this.visits.findByPetIdOrderByDateDescIdDesc(7, PageRequest.of(0, 5));
+
+		assertThat(plan(7, 6)).contains("PUBLIC.VISITS_PET_ID: PET_ID = ?1");
+	}
+
+	@Test
+	void recentVisitsOfPetsAreLookedUpByPetId() {
+		this.visits.findRecentByPetIds(List.of(7, 8), 6);
+
+		assertThat(plan(7, 8, 6)).contains("PUBLIC.VISITS_PET_ID: PET_ID IN(?1, ?2)");
+	}
+
+	/**
+	 * Return the value of the parameter bounding the scan of the
+	 * {@code owners_last_name_id} index with the given operator, failing if the range is
+	 * only bounded by the searched prefix.
+	 */
+	private static Object cursorBound(String plan, String operator, Object[] parameters) {
+		Matcher range = Pattern.compile("PUBLIC.OWNERS_LAST_NAME_ID: LAST_NAME " + operator + " \\?(\\d+)")
+			.matcher(plan);
+		assertThat(range.find()).as(plan).isTrue();
+		return parameters[Integer.parseInt(range.group(1)) - 1];
+	}
+
+	/**
+	 * Explain the last statement executed by Hibernate, with the given parameters.
+	 */
+	private String plan(Object... parameters) {
+		return this.jdbc.queryForObject("EXPLAIN " + RecordingStatementInspector.lastStatement(), String.class,
+				parameters);
+	}
+
+}
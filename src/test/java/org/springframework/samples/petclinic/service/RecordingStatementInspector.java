@@ -0,0 +1,63 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Records the SQL statements Hibernate executes, so that tests can explain the plans of
+ * the statements actually generated for the repository methods. Enable it with
+ * {@value #PROPERTY}.
+ */
+public class RecordingStatementInspector implements StatementInspector {
+
+	/**
+	 * Property registering the inspector with Hibernate.
+	 */
+	public static final String PROPERTY = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+			+ "org.springframework.samples.petclinic.service.RecordingStatementInspector";
+
+	private static final List<String> statements = new CopyOnWriteArrayList<>();
+
+	@Override
+	public String inspect(String sql) {
+		statements.add(sql);
+		return sql;
+	}
+
+	/**
+	 * Forget the statements recorded so far.
+	 */
+	public static void clear() {
+		statements.clear();
+	}
+
+	/**
+	 * Return the last statement executed by Hibernate, failing if there is none.
+	 * @return the SQL of the statement
+	 */
+	public static String lastStatement() {
+		assertThat(statements).isNotEmpty();
+		return statements.get(statements.size() - 1);
+	}
+
+}
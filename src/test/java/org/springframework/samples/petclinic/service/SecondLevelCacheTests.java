@@ -0,0 +1,99 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.samples.petclinic.owner.OwnerRepository;
+import org.springframework.samples.petclinic.owner.PetType;
+import org.springframework.samples.petclinic.vet.Vet;
+import org.springframework.samples.petclinic.vet.VetRepository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Integration test of the Hibernate second-level and query caches of the reference
+ * entities.
+ */
+@DataJpaTest
+class SecondLevelCacheTests {
+
+	@Autowired
+	OwnerRepository owners;
+
+	@Autowired
+	VetRepository vets;
+
+	@Autowired
+	EntityManager entityManager;
+
+	@Autowired
+	EntityManagerFactory entityManagerFactory;
+
+	Statistics statistics;
+
+	@BeforeEach
+	void setup() {
+		this.statistics = this.entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+	}
+
+	@Test
+	void shouldLoadVetWithSpecialtiesFromCache() {
+		this.entityManager.find(Vet.class, 2);
+		this.entityManager.clear();
+		this.statistics.clear();
+
+		Vet vet = this.entityManager.find(Vet.class, 2);
+
+		assertThat(vet.getSpecialties()).extracting("name").containsExactly("radiology");
+		assertThat(this.statistics.getPrepareStatementCount()).isZero();
+		assertThat(this.statistics.getDomainDataRegionStatistics("vets").getHitCount()).isEqualTo(1);
+		assertThat(this.statistics.getCollectionStatistics(Vet.class.getName() + ".specialties").getCacheHitCount())
+			.isEqualTo(1);
+	}
+
+	@Test
+	void shouldCacheVetsQuery() {
+		this.vets.findAllWithSpecialties();
+		this.entityManager.clear();
+		this.statistics.clear();
+
+		assertThat(this.vets.findAllWithSpecialties()).hasSize(6);
+
+		assertThat(this.statistics.getPrepareStatementCount()).isZero();
+		assertThat(this.statistics.getQueryCacheHitCount()).isEqualTo(1);
+	}
+
+	@Test
+	void shouldCachePetTypesQuery() {
+		this.owners.findPetTypes();
+		this.entityManager.clear();
+		this.statistics.clear();
+
+		assertThat(this.owners.findPetTypes()).extracting(PetType::getName).startsWith("bird", "cat");
+
+		assertThat(this.statistics.getPrepareStatementCount()).isZero();
+		assertThat(this.statistics.getQueryCacheHitCount()).isEqualTo(1);
+	}
+
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.samples.petclinic.owner.Owner;
+import org.springframework.samples.petclinic.owner.OwnerRepository;
+import org.springframework.samples.petclinic.owner.Pet;
+import org.springframework.samples.petclinic.owner.Visit;
+import org.springframework.test.context.ActiveProfiles;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Integration test of the sequence generated ids, which let Hibernate batch the inserts
+ * of a new owner with its pets and visits.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = Replace.NONE)
+@ActiveProfiles("sequence-ids")
+class SequenceIdsTests {
+
+	@Autowired
+	OwnerRepository owners;
+
+	@Autowired
+	EntityManager entityManager;
+
+	@Autowired
+	EntityManagerFactory entityManagerFactory;
+
+	@Test
+	void shouldAssignIdsWithoutInserting() {
+		Owner owner = newOwner(1, 1);
+		Statistics statistics = this.entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+
+		this.owners.save(owner);
+
+		assertThat(owner.getId()).isGreaterThan(13);
+		assertThat(owner.getPets().get(0).getId()).isNotNull();
+		assertThat(statistics.getEntityInsertCount()).isZero();
+	}
+
+	@Test
+	void shouldBatchInsertsPerTable() {
+		Owner owner = newOwner(3, 2);
+		Statistics statistics = this.entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+
+		this.owners.save(owner);
+		this.entityManager.flush();
+
+		// 1 owner, 3 pets and 6 visits, but only one statement per table plus one call
+		// per sequence
+		assertThat(statistics.getEntityInsertCount()).isEqualTo(10);
+		assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(6);
+
+		this.entityManager.clear();
+		Owner found = this.owners.findById(owner.getId()).orElseThrow();
+		assertThat(found.getPets()).hasSize(3).allMatch(pet -> pet.getVisits().size() == 2);
+	}
+
+	private Owner newOwner(int pets, int visitsPerPet) {
+		Owner owner = new Owner();
+		owner.setFirstName("Sam");
+		owner.setLastName("Schultz");
+		owner.setAddress("4, Evans Street");
+		owner.setCity("Wollongong");
+		owner.setTelephone("4444444444");
+		for (int i = 0; i < pets; i++) {
+			Pet pet = new Pet();
+			pet.setName("bowser" + i);
+			pet.setType(this.owners.findPetTypes().get(0));
+			pet.setBirthDate(LocalDate.now());
+			for (int j = 0; j < visitsPerPet; j++) {
+				Visit visit = new Visit();
+				visit.setDescription("visit " + j);
+				pet.addVisit(visit);
+			}
+			owner.addPet(pet);
+		}
+		return owner;
+	}
+
+}
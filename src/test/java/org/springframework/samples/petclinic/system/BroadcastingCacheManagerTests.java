@@ -0,0 +1,121 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.system;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+/**
+ * Test class for {@link BroadcastingCacheManager}, with two instances of the application
+ * sharing an {@link InMemoryCacheInvalidationBus}.
+ */
+class BroadcastingCacheManagerTests {
+
+	private final InMemoryCacheInvalidationBus firstBus = new InMemoryCacheInvalidationBus();
+
+	private final InMemoryCacheInvalidationBus secondBus = this.firstBus.join();
+
+	private final BroadcastingCacheManager first = new BroadcastingCacheManager(this.firstBus);
+
+	private final BroadcastingCacheManager second = new BroadcastingCacheManager(this.secondBus);
+
+	private Cache firstOwners;
+
+	private Cache secondOwners;
+
+	@BeforeEach
+	void setup() {
+		this.firstOwners = this.first.getCache("owners");
+		this.secondOwners = this.second.getCache("owners");
+		for (Cache cache : List.of(this.firstOwners, this.secondOwners)) {
+			cache.put(1, "George");
+			cache.put(2, "Betty");
+		}
+	}
+
+	@Test
+	void shouldEvictKeyOnOtherInstances() {
+		this.firstOwners.evict(1);
+
+		assertThat(this.firstOwners.get(1)).isNull();
+		assertThat(this.secondOwners.get(1)).isNull();
+		assertThat(this.secondOwners.get(2)).isNotNull();
+	}
+
+	@Test
+	void shouldEvictKeyCachedOnlyByOtherInstances() {
+		this.firstOwners.evict(1);
+		this.secondOwners.put(1, "George");
+
+		assertThat(this.firstOwners.evictIfPresent(1)).isFalse();
+		assertThat(this.secondOwners.get(1)).isNull();
+	}
+
+	@Test
+	void shouldClearOtherInstances() {
+		this.secondOwners.clear();
+
+		assertThat(this.firstOwners.get(1)).isNull();
+		assertThat(this.firstOwners.get(2)).isNull();
+	}
+
+	@Test
+	void shouldNotBroadcastPuts() {
+		this.firstOwners.put(3, "Eduardo");
+
+		assertThat(this.secondOwners.get(3)).isNull();
+		assertThat(this.firstBus.getPublished()).isEmpty();
+	}
+
+	@Test
+	void shouldNotBroadcastReceivedInvalidations() {
+		this.firstOwners.evict(1);
+
+		assertThat(this.firstBus.getPublished()).containsExactly(CacheInvalidation.evict("owners", 1));
+		assertThat(this.secondBus.getPublished()).isEmpty();
+	}
+
+	@Test
+	void shouldClearOtherInstancesForUnsupportedKeys() {
+		this.firstOwners.evict(List.of(1));
+
+		assertThat(this.firstBus.getPublished()).containsExactly(CacheInvalidation.clear("owners"));
+		assertThat(this.secondOwners.get(2)).isNull();
+	}
+
+	@Test
+	void shouldClearCachesAfterMissedInvalidations() {
+		this.secondBus.disconnect();
+
+		assertThat(this.firstOwners.get(1)).isNotNull();
+		assertThat(this.secondOwners.get(1)).isNull();
+		assertThat(this.secondOwners.get(2)).isNull();
+	}
+
+	@Test
+	void shouldKeepCaffeineCaches() {
+		assertThat(this.firstOwners).isInstanceOf(CaffeineCache.class);
+		assertThat(((CaffeineCache) this.firstOwners).getNativeCache().estimatedSize()).isEqualTo(2);
+	}
+
+}
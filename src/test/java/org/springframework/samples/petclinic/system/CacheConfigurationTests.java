@@ -0,0 +1,141 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.system;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import com.github.benmanes.caffeine.cache.LoadingCache;
+
+/**
+ * Test class for {@link CacheConfiguration}
+ */
+class CacheConfigurationTests {
+
+	private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+		.withUserConfiguration(CacheConfiguration.class);
+
+	@Test
+	void configuredCachesAreBounded() {
+		this.contextRunner.withPropertyValues("petclinic.cache.specs.vets=maximumSize=2").run(context -> {
+			CaffeineCacheManager cacheManager = context.getBean(CaffeineCacheManager.class);
+			assertThat(cacheManager.getCacheNames()).containsExactly("vets");
+			CaffeineCache vets = (CaffeineCache) cacheManager.getCache("vets");
+			assertThat(vets.getNativeCache().policy().eviction())
+				.hasValueSatisfying(eviction -> assertThat(eviction.getMaximum()).isEqualTo(2));
+			assertThat(vets.getNativeCache().policy().isRecordingStats()).isTrue();
+		});
+	}
+
+	@Test
+	void otherCachesUseDefaultSpec() {
+		this.contextRunner.withPropertyValues("petclinic.cache.default-spec=maximumSize=3").run(context -> {
+			CaffeineCache other = (CaffeineCache) context.getBean(CaffeineCacheManager.class).getCache("other");
+			assertThat(other.getNativeCache().policy().eviction())
+				.hasValueSatisfying(eviction -> assertThat(eviction.getMaximum()).isEqualTo(3));
+		});
+	}
+
+	@Test
+	void refreshingCacheUsesNamedLoader() {
+		this.contextRunner.withPropertyValues("petclinic.cache.specs.vets=maximumSize=2,refreshAfterWrite=1m")
+			.withBean(NamedCacheLoader.class, () -> new NamedCacheLoader() {
+
+				@Override
+				public String getCacheName() {
+					return "vets";
+				}
+
+				@Override
+				public Object load(Object key) {
+					return "loaded " + key;
+				}
+
+			})
+			.run(context -> {
+				CaffeineCache vets = (CaffeineCache) context.getBean(CaffeineCacheManager.class).getCache("vets");
+				assertThat(vets.getNativeCache()).isInstanceOf(LoadingCache.class);
+				assertThat(vets.getNativeCache().policy().refreshAfterWrite()).isPresent();
+				assertThat(vets.get("key").get()).isEqualTo("loaded key");
+			});
+	}
+
+	@Test
+	void evictionsAreBroadcastWithInvalidationBus() {
+		InMemoryCacheInvalidationBus bus = new InMemoryCacheInvalidationBus();
+		this.contextRunner.withPropertyValues("petclinic.cache.specs.vets=maximumSize=2")
+			.withBean(CacheInvalidationBus.class, () -> bus)
+			.run(context -> {
+				CaffeineCacheManager cacheManager = context.getBean(CaffeineCacheManager.class);
+				assertThat(cacheManager).isInstanceOf(BroadcastingCacheManager.class);
+				cacheManager.getCache("vets").evict("all");
+				assertThat(bus.getPublished()).containsExactly(CacheInvalidation.evict("vets", "all"));
+			});
+	}
+
+	@Test
+	void postgresInvalidationBusIsOptIn() {
+		this.contextRunner.run(context -> assertThat(context).doesNotHaveBean(CacheInvalidationBus.class)
+			.getBean(CaffeineCacheManager.class)
+			.isNotInstanceOf(BroadcastingCacheManager.class));
+	}
+
+	@Test
+	void refreshingCacheRequiresLoader() {
+		this.contextRunner.withPropertyValues("petclinic.cache.specs.vets=maximumSize=2,refreshAfterWrite=1m")
+			.run(context -> assertThat(context).hasFailed());
+	}
+
+	@Test
+	void refreshesRunOnApplicationTaskExecutor() {
+		AtomicInteger executions = new AtomicInteger();
+		Executor executor = task -> {
+			executions.incrementAndGet();
+			task.run();
+		};
+		this.contextRunner.withPropertyValues("petclinic.cache.specs.vets=maximumSize=2,refreshAfterWrite=1m")
+			.withBean(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME, Executor.class,
+					() -> executor)
+			.withBean(NamedCacheLoader.class, () -> new NamedCacheLoader() {
+
+				@Override
+				public String getCacheName() {
+					return "vets";
+				}
+
+				@Override
+				public Object load(Object key) {
+					return "loaded " + key;
+				}
+
+			})
+			.run(context -> {
+				CaffeineCache vets = (CaffeineCache) context.getBean(CaffeineCacheManager.class).getCache("vets");
+				((LoadingCache<Object, Object>) vets.getNativeCache()).refresh("key").join();
+				assertThat(executions).hasPositiveValue();
+			});
+	}
+
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.system;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Tests for {@link DataGenerator}, which runs on startup of the test context.
+ */
+@JdbcTest
+@Import(DataGenerator.class)
+@ActiveProfiles({ DataGenerator.PROFILE, "sequence-ids" })
+@TestPropertySource(properties = { "petclinic.generator.owners=60", "petclinic.generator.batch-size=7" })
+class DataGeneratorTests {
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	@Autowired
+	private DataGenerator generator;
+
+	@Test
+	void shouldGenerateOwnersWithPetsAndVisits() {
+		assertThat(count("SELECT COUNT(*) FROM owners")).isEqualTo(60);
+		assertThat(count("SELECT COUNT(*) FROM owners o WHERE o.id > 10"
+				+ " AND NOT EXISTS (SELECT 1 FROM pets p WHERE p.owner_id = o.id)"))
+			.isZero();
+		assertThat(count(
+				"SELECT COUNT(*) FROM visits v JOIN pets p ON v.pet_id = p.id" + " WHERE v.visit_date < p.birth_date"))
+			.isZero();
+		assertThat(this.jdbc.queryForList("SELECT telephone FROM owners", String.class))
+			.allMatch(telephone -> telephone.matches("\\d{10}"));
+	}
+
+	@Test
+	void shouldNotGenerateOnceOwnersReached() {
+		assertThat(this.generator.generate()).isZero();
+		assertThat(count("SELECT COUNT(*) FROM owners")).isEqualTo(60);
+	}
+
+	@Test
+	void shouldRestartSequencesPastGeneratedIds() {
+		// a sequence value hands out the block of 50 ids ending with it
+		for (String table : new String[] { "owners", "pets", "visits" }) {
+			int next = count("SELECT NEXT VALUE FOR " + table + "_seq");
+			assertThat(next - 50).isGreaterThanOrEqualTo(count("SELECT MAX(id) FROM " + table));
+		}
+	}
+
+	@Test
+	void shouldNotMoveSequencesBack() {
+		// ids already handed out past the generated rows, e.g. by a block of Hibernate
+		this.jdbc.execute("ALTER SEQUENCE owners_seq RESTART WITH 100000");
+		// one owner less, so that the generator runs again
+		int ownerId = count("SELECT MAX(id) FROM owners");
+		this.jdbc.update("DELETE FROM visits WHERE pet_id IN (SELECT id FROM pets WHERE owner_id = ?)", ownerId);
+		this.jdbc.update("DELETE FROM pets WHERE owner_id = ?", ownerId);
+		this.jdbc.update("DELETE FROM owners WHERE id = ?", ownerId);
+		assertThat(this.generator.generate()).isOne();
+		assertThat(count("SELECT NEXT VALUE FOR owners_seq")).isGreaterThanOrEqualTo(100000);
+	}
+
+	private int count(String sql) {
+		return this.jdbc.queryForObject(sql, Integer.class);
+	}
+
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.system;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * {@link CacheInvalidationBus} standing in for the database in the tests: the buses
+ * {@link #join() joined} to one another deliver the invalidations synchronously to each
+ * other, as if each one was used by another instance of the application.
+ */
+class InMemoryCacheInvalidationBus implements CacheInvalidationBus {
+
+	private final List<InMemoryCacheInvalidationBus> network;
+
+	private final List<CacheInvalidationListener> listeners = new CopyOnWriteArrayList<>();
+
+	private final List<CacheInvalidation> published = new CopyOnWriteArrayList<>();
+
+	InMemoryCacheInvalidationBus() {
+		this(new CopyOnWriteArrayList<>());
+	}
+
+	private InMemoryCacheInvalidationBus(List<InMemoryCacheInvalidationBus> network) {
+		this.network = network;
+		network.add(this);
+	}
+
+	/**
+	 * Create the bus of another instance, receiving the invalidations of this one.
+	 * @return the new bus
+	 */
+	InMemoryCacheInvalidationBus join() {
+		return new InMemoryCacheInvalidationBus(this.network);
+	}
+
+	@Override
+	public void publish(CacheInvalidation invalidation) {
+		this.published.add(invalidation);
+		for (InMemoryCacheInvalidationBus bus : this.network) {
+			if (bus != this) {
+				bus.listeners.forEach(listener -> listener.accept(invalidation));
+			}
+		}
+	}
+
+	@Override
+	public void subscribe(CacheInvalidationListener listener) {
+		this.listeners.add(listener);
+	}
+
+	/**
+	 * Tell the listeners that invalidations were lost, as after a disconnection.
+	 */
+	void disconnect() {
+		this.listeners.forEach(CacheInvalidationListener::missed);
+	}
+
+	/**
+	 * @return the invalidations published through this bus
+	 */
+	List<CacheInvalidation> getPublished() {
+		return new ArrayList<>(this.published);
+	}
+
+}
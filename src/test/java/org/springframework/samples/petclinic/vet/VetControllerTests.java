@@ -16,22 +16,32 @@
 
 package org.springframework.samples.petclinic.vet;
 
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+
 import org.assertj.core.util.Lists;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.condition.DisabledInNativeImage;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
-import org.springframework.data.domain.PageImpl;
-import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockHttpSession;
 import org.springframework.test.context.aot.DisabledInAotMode;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.web.servlet.i18n.SessionLocaleResolver;
 
-import static org.mockito.ArgumentMatchers.any;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.not;
 import static org.mockito.BDDMockito.given;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -74,8 +84,6 @@ class VetControllerTests {
 	@BeforeEach
 	void setup() {
 		given(this.vets.findAll()).willReturn(Lists.newArrayList(james(), helen()));
-		given(this.vets.findAll(any(Pageable.class)))
-			.willReturn(new PageImpl<Vet>(Lists.newArrayList(james(), helen())));
 
 	}
 
@@ -89,6 +97,21 @@ class VetControllerTests {
 
 	}
 
+	@Test
+	void testShowVetListHtmlPageFromCachedList() throws Exception {
+		List<Vet> all = new ArrayList<>();
+		for (int i = 0; i < 6; i++) {
+			all.add(james());
+		}
+		given(this.vets.findAll()).willReturn(all);
+
+		mockMvc.perform(get("/vets.html?page=2"))
+			.andExpect(status().isOk())
+			.andExpect(model().attribute("listVets", hasSize(1)))
+			.andExpect(model().attribute("totalPages", 2))
+			.andExpect(model().attribute("totalItems", 6L));
+	}
+
 	@Test
 	void testShowResourcesVetList() throws Exception {
 		ResultActions actions = mockMvc.perform(get("/vets").accept(MediaType.APPLICATION_JSON))
@@ -97,4 +120,127 @@ class VetControllerTests {
 			.andExpect(jsonPath("$.vetList[0].id").value(1));
 	}
 
+	@Test
+	void testShowResourcesVetListNotModified() throws Exception {
+		String etag = mockMvc.perform(get("/vets").accept(MediaType.APPLICATION_JSON))
+			.andExpect(status().isOk())
+			.andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+			.andReturn()
+			.getResponse()
+			.getHeader(HttpHeaders.ETAG);
+		assertThat(etag).isNotNull();
+
+		mockMvc.perform(get("/vets").accept(MediaType.APPLICATION_JSON).header(HttpHeaders.IF_NONE_MATCH, etag))
+			.andExpect(status().isNotModified())
+			.andExpect(content().string(""));
+
+		Vet linda = james();
+		linda.setId(3);
+		linda.setFirstName("Linda");
+		given(this.vets.findAll()).willReturn(Lists.newArrayList(james(), helen(), linda));
+		mockMvc.perform(get("/vets").accept(MediaType.APPLICATION_JSON).header(HttpHeaders.IF_NONE_MATCH, etag))
+			.andExpect(status().isOk())
+			.andExpect(header().string(HttpHeaders.ETAG, not(etag)));
+	}
+
+	@Test
+	void testShowResourcesVetListNotModifiedVaries() throws Exception {
+		String etag = mockMvc.perform(get("/vets").accept(MediaType.APPLICATION_JSON))
+			.andExpect(header().string(HttpHeaders.VARY, "Accept, Accept-Encoding"))
+			.andReturn()
+			.getResponse()
+			.getHeader(HttpHeaders.ETAG);
+
+		mockMvc.perform(get("/vets").accept(MediaType.APPLICATION_JSON).header(HttpHeaders.IF_NONE_MATCH, etag))
+			.andExpect(status().isNotModified())
+			.andExpect(header().string(HttpHeaders.VARY, "Accept, Accept-Encoding"));
+	}
+
+	@Test
+	void testShowResourcesVetListEtagPerRepresentation() throws Exception {
+		String etag = mockMvc.perform(get("/vets").accept(MediaType.APPLICATION_JSON))
+			.andReturn()
+			.getResponse()
+			.getHeader(HttpHeaders.ETAG);
+
+		mockMvc.perform(get("/vets").accept(MediaType.APPLICATION_XML).header(HttpHeaders.IF_NONE_MATCH, etag))
+			.andExpect(status().isOk())
+			.andExpect(header().string(HttpHeaders.ETAG, not(etag)));
+		mockMvc
+			.perform(get("/vets").accept(MediaType.APPLICATION_JSON)
+				.header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+				.header(HttpHeaders.IF_NONE_MATCH, etag))
+			.andExpect(status().isOk())
+			.andExpect(header().string(HttpHeaders.ETAG, not(etag)));
+	}
+
+	@Test
+	void testShowVetListHtmlNotModified() throws Exception {
+		String etag = mockMvc.perform(get("/vets.html"))
+			.andExpect(status().isOk())
+			.andReturn()
+			.getResponse()
+			.getHeader(HttpHeaders.ETAG);
+
+		mockMvc.perform(get("/vets.html").header(HttpHeaders.IF_NONE_MATCH, etag))
+			.andExpect(status().isNotModified())
+			.andExpect(result -> assertThat(result.getModelAndView()).isNull());
+
+		mockMvc.perform(get("/vets.html?lang=de").header(HttpHeaders.IF_NONE_MATCH, etag)).andExpect(status().isOk());
+	}
+
+	@Test
+	void testShowVetListHtmlAfterLanguageSwitch() throws Exception {
+		MockHttpSession session = new MockHttpSession();
+		MockHttpServletResponse english = mockMvc.perform(get("/vets.html?lang=en").session(session))
+			.andExpect(status().isOk())
+			.andExpect(header().doesNotExist(HttpHeaders.LAST_MODIFIED))
+			.andReturn()
+			.getResponse();
+
+		// the language is switched on another page, then the vets are revalidated
+		session.setAttribute(SessionLocaleResolver.LOCALE_SESSION_ATTRIBUTE_NAME, Locale.GERMAN);
+		mockMvc
+			.perform(get("/vets.html").session(session)
+				.header(HttpHeaders.IF_NONE_MATCH, english.getHeader(HttpHeaders.ETAG))
+				.header(HttpHeaders.IF_MODIFIED_SINCE, "Fri, 31 Dec 2100 23:59:59 GMT"))
+			.andExpect(status().isOk())
+			.andExpect(header().string(HttpHeaders.ETAG, not(english.getHeader(HttpHeaders.ETAG))));
+		mockMvc
+			.perform(get("/vets.html").session(session)
+				.header(HttpHeaders.IF_MODIFIED_SINCE, "Fri, 31 Dec 2100 23:59:59 GMT"))
+			.andExpect(status().isOk());
+	}
+
+	@Test
+	void testShowResourcesVetListXml() throws Exception {
+		mockMvc.perform(get("/vets").accept(MediaType.APPLICATION_XML))
+			.andExpect(status().isOk())
+			.andExpect(content().contentType(MediaType.APPLICATION_XML))
+			.andExpect(xpath("/vets/vetList[2]/specialties/name").string("radiology"));
+	}
+
+	@Test
+	void testShowResourcesVetListGzip() throws Exception {
+		byte[] plain = mockMvc.perform(get("/vets").accept(MediaType.APPLICATION_JSON))
+			.andReturn()
+			.getResponse()
+			.getContentAsByteArray();
+
+		byte[] gzipped = mockMvc
+			.perform(get("/vets").accept(MediaType.APPLICATION_JSON)
+				.header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+			.andExpect(status().isOk())
+			.andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+			.andReturn()
+			.getResponse()
+			.getContentAsByteArray();
+		try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped))) {
+			assertThat(in.readAllBytes()).isEqualTo(plain);
+		}
+
+		mockMvc.perform(get("/vets").accept(MediaType.APPLICATION_JSON).header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0"))
+			.andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING));
+	}
+
 }